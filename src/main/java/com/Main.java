@@ -4,27 +4,66 @@ import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.geometry.Side;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import com.dailygratitude.model.ChangeEvent;
 import com.dailygratitude.model.Quote;
+import com.dailygratitude.model.DayStats;
 import com.dailygratitude.model.GratitudeEntry;
+import com.dailygratitude.model.TermCount;
+import com.dailygratitude.service.AutocompleteService;
+import com.dailygratitude.service.BackupService;
+import com.dailygratitude.service.CalendarIndex;
 import com.dailygratitude.service.QuoteService;
 import com.dailygratitude.service.DatabaseService;
+import com.dailygratitude.service.DraftJournal;
+import com.dailygratitude.service.RecentEntriesCache;
+import com.dailygratitude.service.SimilarityIndex;
+import com.dailygratitude.service.TermStatistics;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class Main extends Application {
     
     private QuoteService quoteService;
     private DatabaseService databaseService;
+    private BackupService backupService;
+    private DraftJournal draftJournal;
+    private RecentEntriesCache recentEntriesCache;
+    private AutocompleteService autocompleteService;
     private TextArea gratitudeTextArea;
+    private TextField tagsField;
     private Label quoteLabel;
     private Label authorLabel;
     private Label statsLabel;
+    private Label onThisDayLabel;
+    
+    // At most one stats refresh is pending on the FX thread at a time
+    private final AtomicBoolean changeUpdateScheduled = new AtomicBoolean();
+    
+    // Suggestions are looked up off the FX thread; only the newest request is shown
+    private final ExecutorService suggestionExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "autocomplete");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong suggestionRequest = new AtomicLong();
+    private final ContextMenu suggestionMenu = new ContextMenu();
     
     public static void main(String[] args) {
         launch(args);
@@ -39,6 +78,14 @@ public class Main extends Application {
         quoteService = new QuoteService();
         databaseService = new DatabaseService();
         databaseService.initializeDatabase();
+        databaseService.startQuoteHistoryRetention(365, 24);
+        backupService = new BackupService(databaseService.getDatabaseName(), Paths.get("backups"), 5);
+        backupService.start(1, 30);
+        draftJournal = new DraftJournal(Paths.get("."), "dailygratitude.draft");
+        recentEntriesCache = new RecentEntriesCache(databaseService, 5);
+        databaseService.getChangeEvents().subscribe(this::onDataChanged);
+        autocompleteService = new AutocompleteService(databaseService);
+        autocompleteService.start();
         
         // Create simple layout
         VBox root = createMainLayout();
@@ -55,10 +102,14 @@ public class Main extends Application {
         
         // Load data
         loadTodaysQuote();
+        loadOnThisDay();
         updateStats();
         
         // Close handler
         primaryStage.setOnCloseRequest(e -> {
+            suggestionExecutor.shutdownNow();
+            if (draftJournal != null) draftJournal.close();
+            if (backupService != null) backupService.stop();
             if (databaseService != null) databaseService.closeConnection();
         });
     }
@@ -84,13 +135,21 @@ public class Main extends Application {
         // Quote section
         VBox quoteSection = createQuoteSection();
         
+        // On this day (hidden until there is something to show)
+        onThisDayLabel = new Label();
+        onThisDayLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #555; -fx-background-color: #fff8e1; -fx-padding: 8; -fx-background-radius: 6;");
+        onThisDayLabel.setWrapText(true);
+        onThisDayLabel.setMaxWidth(700);
+        onThisDayLabel.setVisible(false);
+        onThisDayLabel.setManaged(false);
+        
         // Gratitude section
         VBox gratitudeSection = createGratitudeSection();
         
         // Buttons
         HBox buttonSection = createButtonSection();
         
-        root.getChildren().addAll(titleLabel, dateLabel, statsLabel, quoteSection, gratitudeSection, buttonSection);
+        root.getChildren().addAll(titleLabel, dateLabel, statsLabel, quoteSection, onThisDayLabel, gratitudeSection, buttonSection);
         return root;
     }
     
@@ -146,7 +205,33 @@ public class Main extends Application {
         gratitudeTextArea.setPrefRowCount(8);
         gratitudeTextArea.setWrapText(true);
         
-        gratitudeBox.getChildren().addAll(gratitudeTitle, gratitudeTextArea);
+        // Restore any draft left by a crash (unless it was saved just before), then journal every change
+        try {
+            gratitudeTextArea.setText(draftJournal.open(databaseService.getSavedDraftId()));
+        } catch (Exception e) {
+            System.err.println("❌ Draft journal unavailable: " + e.getMessage());
+        }
+        gratitudeTextArea.textProperty().addListener((obs, oldText, newText) -> {
+            draftJournal.update(newText);
+            // The caret moves after the text changes, so look it up once it has
+            if (newText.length() > oldText.length()) {
+                Platform.runLater(() -> requestSuggestions(gratitudeTextArea, false));
+            } else {
+                suggestionMenu.hide();
+            }
+        });
+        
+        tagsField = new TextField();
+        tagsField.setPromptText("Tags (comma separated, optional)");
+        tagsField.textProperty().addListener((obs, oldText, newText) -> {
+            if (newText.length() > oldText.length()) {
+                requestSuggestions(tagsField, true);
+            } else {
+                suggestionMenu.hide();
+            }
+        });
+        
+        gratitudeBox.getChildren().addAll(gratitudeTitle, gratitudeTextArea, tagsField);
         return gratitudeBox;
     }
     
@@ -166,7 +251,15 @@ public class Main extends Application {
         todayBtn.setStyle("-fx-background-color: #e67e22; -fx-text-fill: white; -fx-padding: 8 16;");
         todayBtn.setOnAction(e -> showTodaysEntries());
         
-        buttonBox.getChildren().addAll(saveBtn, viewBtn, todayBtn);
+        Button calendarBtn = new Button("🗓️ Calendar");
+        calendarBtn.setStyle("-fx-background-color: #8e44ad; -fx-text-fill: white; -fx-padding: 8 16;");
+        calendarBtn.setOnAction(e -> showCalendar());
+        
+        Button insightsBtn = new Button("✨ Insights");
+        insightsBtn.setStyle("-fx-background-color: #16a085; -fx-text-fill: white; -fx-padding: 8 16;");
+        insightsBtn.setOnAction(e -> showInsights());
+        
+        buttonBox.getChildren().addAll(saveBtn, viewBtn, todayBtn, calendarBtn, insightsBtn);
         return buttonBox;
     }
     
@@ -174,6 +267,7 @@ public class Main extends Application {
         new Thread(() -> {
             try {
                 Quote quote = quoteService.getTodaysQuote();
+                databaseService.saveQuoteToHistory(quote.getText(), quote.getAuthor(), quote.getSource());
                 Platform.runLater(() -> {
                     quoteLabel.setText("\"" + quote.getText() + "\"");
                     authorLabel.setText(quote.getAuthor());
@@ -187,10 +281,32 @@ public class Main extends Application {
         }).start();
     }
     
+    private void loadOnThisDay() {
+        new Thread(() -> {
+            try {
+                List<GratitudeEntry> entries = databaseService.getEntriesOnThisDay(LocalDate.now(), 3);
+                if (entries.isEmpty()) return;
+                
+                StringBuilder sb = new StringBuilder("🕰️ On this day");
+                for (GratitudeEntry entry : entries) {
+                    sb.append("\n").append(entry.getCreatedDate().getYear()).append(": ").append(entry.getPreview(80));
+                }
+                Platform.runLater(() -> {
+                    onThisDayLabel.setText(sb.toString());
+                    onThisDayLabel.setVisible(true);
+                    onThisDayLabel.setManaged(true);
+                });
+            } catch (Exception e) {
+                System.err.println("Failed to load on-this-day entries: " + e.getMessage());
+            }
+        }).start();
+    }
+    
     private void loadRandomQuote() {
         new Thread(() -> {
             try {
                 Quote quote = quoteService.getRandomQuote();
+                databaseService.saveQuoteToHistory(quote.getText(), quote.getAuthor(), quote.getSource());
                 Platform.runLater(() -> {
                     quoteLabel.setText("\"" + quote.getText() + "\"");
                     authorLabel.setText(quote.getAuthor());
@@ -204,6 +320,51 @@ public class Main extends Application {
         }).start();
     }
     
+    /**
+     * Look up completions for the text before the caret on the autocomplete thread
+     */
+    private void requestSuggestions(TextInputControl field, boolean tagsMode) {
+        long request = suggestionRequest.incrementAndGet();
+        String text = field.getText();
+        String beforeCaret = text.substring(0, Math.min(field.getCaretPosition(), text.length()));
+        
+        suggestionExecutor.execute(() -> {
+            if (request != suggestionRequest.get()) return; // a newer keystroke is queued
+            List<String> suggestions = tagsMode
+                    ? autocompleteService.suggestTags(beforeCaret, 5)
+                    : autocompleteService.suggestText(beforeCaret, 5);
+            Platform.runLater(() -> {
+                if (request == suggestionRequest.get()) {
+                    showSuggestions(field, beforeCaret, suggestions, tagsMode);
+                }
+            });
+        });
+    }
+    
+    private void showSuggestions(TextInputControl field, String beforeCaret, List<String> suggestions, boolean tagsMode) {
+        if (suggestions.isEmpty()) {
+            suggestionMenu.hide();
+            return;
+        }
+        
+        List<MenuItem> items = new ArrayList<>();
+        for (String suggestion : suggestions) {
+            MenuItem item = new MenuItem(suggestion);
+            item.setOnAction(e -> {
+                String completed = tagsMode
+                        ? AutocompleteService.completeTag(beforeCaret, suggestion)
+                        : AutocompleteService.completeText(beforeCaret, suggestion);
+                field.replaceText(0, beforeCaret.length(), completed);
+                field.positionCaret(completed.length());
+            });
+            items.add(item);
+        }
+        suggestionMenu.getItems().setAll(items);
+        if (!suggestionMenu.isShowing()) {
+            suggestionMenu.show(field, Side.BOTTOM, 0, 0);
+        }
+    }
+    
     private void saveGratitudeEntry() {
         String text = gratitudeTextArea.getText().trim();
         if (text.isEmpty()) {
@@ -211,34 +372,69 @@ public class Main extends Application {
             return;
         }
         
+        List<Long> similar;
+        long id;
         try {
-            long id = databaseService.saveGratitudeEntry(text);
-            updateStats();
-            showAlert("Success", "Entry saved! ID: " + id);
-            gratitudeTextArea.clear();
+            similar = databaseService.getSimilarityIndex().findSimilar(text, SimilarityIndex.DEFAULT_MIN_SIMILARITY);
+            List<String> tags = AutocompleteService.parseTags(tagsField.getText());
+            id = databaseService.saveGratitudeEntry(text, null, tags.isEmpty() ? null : String.join(", ", tags),
+                    draftJournal.getDraftId());
         } catch (Exception e) {
             showAlert("Error", "Failed to save: " + e.getMessage());
+            return;
+        }
+        
+        // The entry is committed; a journal failure here must not look like a failed save.
+        // The saved draft id already keeps this draft from being restored.
+        try {
+            draftJournal.clear();
+        } catch (IOException e) {
+            System.err.println("❌ Failed to clear draft journal: " + e.getMessage());
+        }
+        gratitudeTextArea.clear();
+        tagsField.clear();
+        
+        String message = "Entry saved! ID: " + id;
+        if (!similar.isEmpty()) {
+            message += "\n\n🔁 Very similar to " + similar.size() + " earlier " +
+                    (similar.size() == 1 ? "entry" : "entries") + ".";
         }
+        showAlert("Success", message);
     }
     
+    /**
+     * Show the entry counts. They come from the calendar index, which DatabaseService
+     * updates under its write lock before publishing each change, so a count can never
+     * miss an entry committed while the window was starting up.
+     */
     private void updateStats() {
-        new Thread(() -> {
-            try {
-                int total = databaseService.getTotalEntryCount();
-                int today = databaseService.getTodayEntryCount();
-                Platform.runLater(() -> {
-                    statsLabel.setText("📊 Total: " + total + " | Today: " + today);
-                });
-            } catch (Exception e) {
-                Platform.runLater(() -> statsLabel.setText("📊 Stats unavailable"));
-            }
-        }).start();
+        CalendarIndex calendar = databaseService.getCalendarIndex();
+        LocalDate today = LocalDate.now();
+        int total = calendar.getTotalEntryCount();
+        int todayCount = calendar.getDayStats(today).getEntryCount();
+        int streak = calendar.getCurrentStreak(today);
+        int longest = calendar.getLongestStreak();
+        statsLabel.setText("📊 Total: " + total + " | Today: " + todayCount +
+                " | 🔥 Streak: " + streak + " (best " + longest + ")");
+    }
+    
+    /**
+     * Called on the event bus thread with each batch of committed changes
+     */
+    private void onDataChanged(List<ChangeEvent> events) {
+        boolean entriesChanged = events.stream().anyMatch(ChangeEvent::isEntryEvent);
+        if (entriesChanged && changeUpdateScheduled.compareAndSet(false, true)) {
+            Platform.runLater(() -> {
+                changeUpdateScheduled.set(false);
+                updateStats();
+            });
+        }
     }
     
     private void showRecentEntries() {
         new Thread(() -> {
             try {
-                List<GratitudeEntry> entries = databaseService.getRecentEntries(5);
+                List<GratitudeEntry> entries = recentEntriesCache.getRecentEntries();
                 Platform.runLater(() -> {
                     if (entries.isEmpty()) {
                         showAlert("No Entries", "No entries found!");
@@ -259,7 +455,7 @@ public class Main extends Application {
     private void showTodaysEntries() {
         new Thread(() -> {
             try {
-                List<GratitudeEntry> entries = databaseService.getEntriesForDate(LocalDate.now());
+                List<GratitudeEntry> entries = recentEntriesCache.getTodaysEntries();
                 Platform.runLater(() -> {
                     if (entries.isEmpty()) {
                         showAlert("No Entries", "No entries today!");
@@ -277,6 +473,91 @@ public class Main extends Application {
         }).start();
     }
     
+    private void showCalendar() {
+        new Thread(() -> {
+            try {
+                // One year of weeks, starting on a Sunday so columns line up
+                LocalDate today = LocalDate.now();
+                LocalDate from = today.minusWeeks(52).with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
+                List<DayStats> days = databaseService.getCalendarIndex().getHeatmap(from, today);
+                Platform.runLater(() -> showCalendarDialog(days));
+            } catch (Exception e) {
+                Platform.runLater(() -> showAlert("Error", "Failed to load calendar"));
+            }
+        }).start();
+    }
+    
+    private void showCalendarDialog(List<DayStats> days) {
+        GridPane grid = new GridPane();
+        grid.setHgap(2);
+        grid.setVgap(2);
+        grid.setPadding(new Insets(10));
+        
+        for (int i = 0; i < days.size(); i++) {
+            DayStats day = days.get(i);
+            Region cell = new Region();
+            cell.setPrefSize(11, 11);
+            cell.setStyle("-fx-background-color: " + heatmapColor(day.getEntryCount()) + "; -fx-background-radius: 2;");
+            
+            String tip = day.getDate().format(DateTimeFormatter.ofPattern("MMM d, yyyy")) + ": " + day.getEntryCount() + " entries";
+            if (day.getAverageMood() != null) {
+                tip += String.format(" | mood %.1f", day.getAverageMood());
+            }
+            Tooltip.install(cell, new Tooltip(tip));
+            
+            grid.add(cell, i / 7, i % 7);
+        }
+        
+        CalendarIndex calendar = databaseService.getCalendarIndex();
+        Label streakLabel = new Label("🔥 Current streak: " + calendar.getCurrentStreak(LocalDate.now()) +
+                " days | Longest: " + calendar.getLongestStreak() + " days");
+        
+        VBox content = new VBox(8, streakLabel, grid);
+        
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Gratitude Calendar");
+        alert.setHeaderText("Your year of gratitude");
+        alert.getDialogPane().setContent(content);
+        alert.showAndWait();
+    }
+    
+    private String heatmapColor(int entryCount) {
+        if (entryCount <= 0) return "#ebedf0";
+        if (entryCount == 1) return "#c6e48b";
+        if (entryCount == 2) return "#7bc96f";
+        return "#239a3b";
+    }
+    
+    private void showInsights() {
+        new Thread(() -> {
+            try {
+                TermStatistics stats = databaseService.getTermStatistics();
+                YearMonth thisMonth = YearMonth.now();
+                
+                StringBuilder sb = new StringBuilder("What you're most grateful for:\n\n");
+                appendTerms(sb, "Top words", stats.topTerms(10, false));
+                appendTerms(sb, "Top phrases", stats.topTerms(5, true));
+                appendTerms(sb, "This month (" + thisMonth.format(DateTimeFormatter.ofPattern("MMMM yyyy")) + ")",
+                        stats.topTerms(thisMonth, 5, false));
+                
+                Platform.runLater(() -> showAlert("Insights", sb.toString()));
+            } catch (Exception e) {
+                Platform.runLater(() -> showAlert("Error", "Failed to load insights"));
+            }
+        }).start();
+    }
+    
+    private void appendTerms(StringBuilder sb, String heading, List<TermCount> terms) {
+        sb.append(heading).append(":\n");
+        if (terms.isEmpty()) {
+            sb.append("  (nothing yet)\n");
+        }
+        for (TermCount term : terms) {
+            sb.append("  • ").append(term.getTerm()).append(" (").append(term.getCount()).append(")\n");
+        }
+        sb.append("\n");
+    }
+    
     private void showAlert(String title, String message) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle(title);
@@ -0,0 +1,67 @@
+package com.dailygratitude.model;
+
+/**
+ * A committed change to the data, published by DatabaseService
+ */
+public class ChangeEvent {
+
+    public enum Type {
+        ENTRY_INSERTED,
+        ENTRY_UPDATED,
+        ENTRY_DELETED,
+        QUOTE_SHOWN
+    }
+
+    private final Type type;
+    private final GratitudeEntry entry; // entry events: the entry as saved, or as it was before deletion
+    private final GratitudeEntry previousEntry; // ENTRY_UPDATED only: the entry before the update
+    private final Quote quote; // QUOTE_SHOWN only
+
+    private ChangeEvent(Type type, GratitudeEntry entry, GratitudeEntry previousEntry, Quote quote) {
+        this.type = type;
+        this.entry = entry;
+        this.previousEntry = previousEntry;
+        this.quote = quote;
+    }
+
+    public static ChangeEvent entryInserted(GratitudeEntry entry) {
+        return new ChangeEvent(Type.ENTRY_INSERTED, entry, null, null);
+    }
+
+    public static ChangeEvent entryUpdated(GratitudeEntry previousEntry, GratitudeEntry entry) {
+        return new ChangeEvent(Type.ENTRY_UPDATED, entry, previousEntry, null);
+    }
+
+    public static ChangeEvent entryDeleted(GratitudeEntry entry) {
+        return new ChangeEvent(Type.ENTRY_DELETED, entry, null, null);
+    }
+
+    public static ChangeEvent quoteShown(Quote quote) {
+        return new ChangeEvent(Type.QUOTE_SHOWN, null, null, quote);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public GratitudeEntry getEntry() {
+        return entry;
+    }
+
+    public GratitudeEntry getPreviousEntry() {
+        return previousEntry;
+    }
+
+    public Quote getQuote() {
+        return quote;
+    }
+
+    public boolean isEntryEvent() {
+        return entry != null;
+    }
+
+    @Override
+    public String toString() {
+        return type + (entry != null ? " #" + entry.getId() : " " + quote);
+    }
+}
@@ -0,0 +1,56 @@
+package com.dailygratitude.model;
+
+import java.time.LocalDate;
+
+public class DayStats {
+    private LocalDate date;
+    private int entryCount;
+    private Double averageMood; // null when no entry that day has a mood rating
+
+    public DayStats() {
+        // Default constructor
+    }
+
+    public DayStats(LocalDate date, int entryCount, Double averageMood) {
+        this.date = date;
+        this.entryCount = entryCount;
+        this.averageMood = averageMood;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(int entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public Double getAverageMood() {
+        return averageMood;
+    }
+
+    public void setAverageMood(Double averageMood) {
+        this.averageMood = averageMood;
+    }
+
+    public boolean hasEntries() {
+        return entryCount > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "DayStats{" +
+                "date=" + date +
+                ", entries=" + entryCount +
+                ", averageMood=" + averageMood +
+                '}';
+    }
+}
@@ -3,14 +3,18 @@ package com.dailygratitude.model;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.function.Supplier;
 
 public class GratitudeEntry {
     private Long id;
+    private String uuid; // stable identity across synced devices
     private String entryText;
     private LocalDate createdDate;
     private LocalDateTime createdDateTime;
     private Integer moodRating; // 1-5 scale (optional)
     private String tags; // comma-separated tags (optional)
+    private String preview; // stored prefix of compressed entries (optional)
+    private Supplier<String> entryTextLoader; // decompresses entryText on first access
     
     // Constructors
     public GratitudeEntry() {
@@ -39,12 +43,45 @@ public class GratitudeEntry {
         this.id = id;
     }
     
-    public String getEntryText() {
+    public String getUuid() {
+        return uuid;
+    }
+    
+    public void setUuid(String uuid) {
+        this.uuid = uuid;
+    }
+    
+    public synchronized String getEntryText() {
+        if (entryText == null && entryTextLoader != null) {
+            entryText = entryTextLoader.get();
+            entryTextLoader = null;
+        }
         return entryText;
     }
     
-    public void setEntryText(String entryText) {
+    public synchronized void setEntryText(String entryText) {
         this.entryText = entryText;
+        this.entryTextLoader = null;
+    }
+    
+    /**
+     * Defer loading the entry text until {@link #getEntryText()} is called
+     */
+    public synchronized void setEntryTextLoader(Supplier<String> entryTextLoader) {
+        this.entryText = null;
+        this.entryTextLoader = entryTextLoader;
+    }
+    
+    public synchronized boolean isEntryTextLoaded() {
+        return entryText != null || entryTextLoader == null;
+    }
+    
+    public String getPreview() {
+        return preview;
+    }
+    
+    public void setPreview(String preview) {
+        this.preview = preview;
     }
     
     public LocalDate getCreatedDate() {
@@ -89,6 +126,12 @@ public class GratitudeEntry {
     }
     
     public String getPreview(int maxLength) {
+        // Stored previews belong to entries longer than the preview itself
+        if (!isEntryTextLoaded() && preview != null && maxLength <= preview.length()) {
+            return preview.substring(0, maxLength) + "...";
+        }
+        
+        String entryText = getEntryText();
         if (entryText == null) return "";
         if (entryText.length() <= maxLength) return entryText;
         return entryText.substring(0, maxLength) + "...";
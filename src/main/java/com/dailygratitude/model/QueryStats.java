@@ -0,0 +1,70 @@
+package com.dailygratitude.model;
+
+public class QueryStats {
+    private String sql;
+    private long count;
+    private double totalMillis;
+    private double maxMillis;
+    private long slowCount; // executions over the slow-query threshold
+
+    public QueryStats() {
+        // Default constructor
+    }
+
+    public QueryStats(String sql, long count, double totalMillis, double maxMillis, long slowCount) {
+        this.sql = sql;
+        this.count = count;
+        this.totalMillis = totalMillis;
+        this.maxMillis = maxMillis;
+        this.slowCount = slowCount;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public void setSql(String sql) {
+        this.sql = sql;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+
+    public void setTotalMillis(double totalMillis) {
+        this.totalMillis = totalMillis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+
+    public void setMaxMillis(double maxMillis) {
+        this.maxMillis = maxMillis;
+    }
+
+    public long getSlowCount() {
+        return slowCount;
+    }
+
+    public void setSlowCount(long slowCount) {
+        this.slowCount = slowCount;
+    }
+
+    public double getAverageMillis() {
+        return count == 0 ? 0 : totalMillis / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%,d x avg %.2f ms, max %.1f ms, %d slow: %s", count, getAverageMillis(), maxMillis, slowCount, sql);
+    }
+}
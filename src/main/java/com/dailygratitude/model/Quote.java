@@ -3,6 +3,7 @@ package com.dailygratitude.model;
 public class Quote {
     private String text;
     private String author;
+    private String source; // API the quote came from (optional)
     
     public Quote() {
         // Default constructor for JSON parsing
@@ -29,6 +30,14 @@ public class Quote {
         this.author = author;
     }
     
+    public String getSource() {
+        return source;
+    }
+    
+    public void setSource(String source) {
+        this.source = source;
+    }
+    
     @Override
     public String toString() {
         return "\"" + text + "\" — " + author;
@@ -0,0 +1,80 @@
+package com.dailygratitude.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SlowQuery {
+    private String timestamp;
+    private String sql;
+    private String parameters; // bound values, e.g. [1='2024-05-01', 2=10]
+    private double durationMillis; // executing plus stepping through the rows
+    private long rows;
+    private List<String> plan = new ArrayList<>(); // EXPLAIN QUERY PLAN lines
+    private List<String> warnings = new ArrayList<>(); // e.g. full table scan, temp B-tree sort
+
+    public SlowQuery() {
+        // Default constructor
+    }
+
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(String timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public void setSql(String sql) {
+        this.sql = sql;
+    }
+
+    public String getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(String parameters) {
+        this.parameters = parameters;
+    }
+
+    public double getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(double durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public List<String> getPlan() {
+        return plan;
+    }
+
+    public void setPlan(List<String> plan) {
+        this.plan = plan;
+    }
+
+    public List<String> getWarnings() {
+        return warnings;
+    }
+
+    public void setWarnings(List<String> warnings) {
+        this.warnings = warnings;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.1f ms, %d rows: %s %s%s", durationMillis, rows, sql, parameters,
+                warnings.isEmpty() ? "" : " " + warnings);
+    }
+}
@@ -0,0 +1,63 @@
+package com.dailygratitude.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A set of entry changes exported by one device for another
+ */
+public class SyncBundle {
+    public static final int FORMAT_VERSION = 1;
+
+    private int formatVersion = FORMAT_VERSION;
+    private String deviceId; // device that exported the bundle
+    private String createdAt;
+    private Map<String, Long> versions = new LinkedHashMap<>(); // highest sequence number seen per device
+    private List<SyncChange> changes = new ArrayList<>();
+
+    public SyncBundle() {
+        // Default constructor for JSON parsing
+    }
+
+    public int getFormatVersion() {
+        return formatVersion;
+    }
+
+    public void setFormatVersion(int formatVersion) {
+        this.formatVersion = formatVersion;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public String getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(String createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Map<String, Long> getVersions() {
+        return versions;
+    }
+
+    public void setVersions(Map<String, Long> versions) {
+        this.versions = versions;
+    }
+
+    public List<SyncChange> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<SyncChange> changes) {
+        this.changes = changes;
+    }
+}
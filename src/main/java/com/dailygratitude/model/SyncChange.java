@@ -0,0 +1,119 @@
+package com.dailygratitude.model;
+
+/**
+ * The latest known state of one entry in a sync bundle: who changed it, when, and what it now holds
+ */
+public class SyncChange {
+    private String entryUuid;
+    private boolean deleted;
+    private String deviceId; // device that made the change
+    private long deviceSeq; // that device's sequence number for the change
+    private String changedAt; // UTC, yyyy-MM-ddTHH:mm:ss.SSS
+
+    // Entry contents, absent for deletions
+    private String entryText;
+    private String createdDate;
+    private String createdDateTime;
+    private Integer moodRating;
+    private String tags;
+
+    public SyncChange() {
+        // Default constructor for JSON parsing
+    }
+
+    /**
+     * Last-writer-wins order: later changedAt wins, then the larger device id, then the larger sequence number
+     */
+    public static int compareVersions(String changedAt, String deviceId, long deviceSeq,
+                                      String otherChangedAt, String otherDeviceId, long otherDeviceSeq) {
+        int result = changedAt.compareTo(otherChangedAt);
+        if (result == 0) result = deviceId.compareTo(otherDeviceId);
+        if (result == 0) result = Long.compare(deviceSeq, otherDeviceSeq);
+        return result;
+    }
+
+    public String getEntryUuid() {
+        return entryUuid;
+    }
+
+    public void setEntryUuid(String entryUuid) {
+        this.entryUuid = entryUuid;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public long getDeviceSeq() {
+        return deviceSeq;
+    }
+
+    public void setDeviceSeq(long deviceSeq) {
+        this.deviceSeq = deviceSeq;
+    }
+
+    public String getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(String changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    public String getEntryText() {
+        return entryText;
+    }
+
+    public void setEntryText(String entryText) {
+        this.entryText = entryText;
+    }
+
+    public String getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(String createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public String getCreatedDateTime() {
+        return createdDateTime;
+    }
+
+    public void setCreatedDateTime(String createdDateTime) {
+        this.createdDateTime = createdDateTime;
+    }
+
+    public Integer getMoodRating() {
+        return moodRating;
+    }
+
+    public void setMoodRating(Integer moodRating) {
+        this.moodRating = moodRating;
+    }
+
+    public String getTags() {
+        return tags;
+    }
+
+    public void setTags(String tags) {
+        this.tags = tags;
+    }
+
+    @Override
+    public String toString() {
+        return (deleted ? "delete " : "upsert ") + entryUuid + " @" + deviceId + ":" + deviceSeq;
+    }
+}
@@ -0,0 +1,40 @@
+package com.dailygratitude.model;
+
+public class TermCount {
+    private String term; // a word or a two-word phrase
+    private int count;
+
+    public TermCount() {
+        // Default constructor
+    }
+
+    public TermCount(String term, int count) {
+        this.term = term;
+        this.count = count;
+    }
+
+    public String getTerm() {
+        return term;
+    }
+
+    public void setTerm(String term) {
+        this.term = term;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public boolean isPhrase() {
+        return term != null && term.indexOf(' ') >= 0;
+    }
+
+    @Override
+    public String toString() {
+        return term + " (" + count + ")";
+    }
+}
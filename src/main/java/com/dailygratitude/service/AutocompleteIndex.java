@@ -0,0 +1,176 @@
+package com.dailygratitude.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prefix index over terms (words, phrases or tags) ranked by frequency and recency.
+ *
+ * Every use of a term adds 2^(days since 2000 / half-life) to its score. Because all
+ * scores decay from the same fixed origin, their order never changes as time passes,
+ * so nothing has to be rescored: a use today simply counts twice as much as one a
+ * half-life ago. Each trie node caches the ids of the best few terms below it, so a
+ * lookup is a walk down the prefix plus a copy of that list, independent of the
+ * vocabulary size. Children are kept in small sorted char arrays rather than maps.
+ */
+public class AutocompleteIndex {
+
+    // Completions cached per node; lookups can't return more than this
+    public static final int MAX_SUGGESTIONS = 8;
+
+    private static final double HALF_LIFE_DAYS = 180;
+    private static final long ORIGIN_EPOCH_DAY = LocalDate.of(2000, 1, 1).toEpochDay();
+    private static final double MIN_SCORE = 1e-9;
+
+    private static final int[] NO_TERMS = new int[0];
+
+    private static class Node {
+        char[] labels = new char[0];
+        Node[] children = new Node[0];
+        int termId = -1; // term ending at this node
+        int[] top = NO_TERMS; // best term ids in this subtree, highest score first
+    }
+
+    private Node root = new Node();
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<String> terms = new ArrayList<>();
+    private double[] scores = new double[64];
+
+    /**
+     * Weight of one use on the given day
+     */
+    public static double weight(LocalDate day) {
+        return Math.pow(2, (day.toEpochDay() - ORIGIN_EPOCH_DAY) / HALF_LIFE_DAYS);
+    }
+
+    /**
+     * Record count uses of a term on a day; a negative count takes them back (deleted entries)
+     */
+    public synchronized void add(String term, int count, LocalDate day) {
+        if (term.isEmpty() || count == 0) return;
+        adjust(term, count * weight(day));
+    }
+
+    public synchronized void clear() {
+        root = new Node();
+        termIds.clear();
+        terms.clear();
+        scores = new double[64];
+    }
+
+    public synchronized int size() {
+        return termIds.size();
+    }
+
+    /**
+     * Best completions of prefix (already lowercased), excluding the prefix itself
+     */
+    public synchronized List<String> suggest(String prefix, int limit) {
+        List<String> result = new ArrayList<>();
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = child(node, prefix.charAt(i));
+        }
+        if (node == null) return result;
+
+        for (int termId : node.top) {
+            if (result.size() >= limit) break;
+            String term = terms.get(termId);
+            if (!term.equals(prefix)) result.add(term);
+        }
+        return result;
+    }
+
+    private void adjust(String term, double delta) {
+        Integer id = termIds.get(term);
+        if (id == null) {
+            if (delta <= 0) return;
+            id = terms.size();
+            terms.add(term);
+            termIds.put(term, id);
+            if (id == scores.length) scores = Arrays.copyOf(scores, id * 2);
+        }
+
+        scores[id] += delta;
+        if (scores[id] < MIN_SCORE * weight(LocalDate.now())) {
+            scores[id] = 0; // used up, drop it from the suggestions
+        }
+
+        // Walk down creating the path, then refresh the cached lists bottom-up
+        Node[] path = new Node[term.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < term.length(); i++) {
+            Node next = child(path[i], term.charAt(i));
+            if (next == null) {
+                next = new Node();
+                insertChild(path[i], term.charAt(i), next);
+            }
+            path[i + 1] = next;
+        }
+        path[term.length()].termId = id;
+
+        for (int i = term.length(); i >= 0; i--) {
+            refreshTop(path[i]);
+        }
+    }
+
+    /**
+     * A node's best terms are among its own term and its children's best terms
+     */
+    private void refreshTop(Node node) {
+        int[] best = new int[MAX_SUGGESTIONS];
+        int size = 0;
+
+        if (node.termId >= 0 && scores[node.termId] > 0) {
+            best[size++] = node.termId;
+        }
+        for (Node child : node.children) {
+            for (int termId : child.top) {
+                size = offer(best, size, termId);
+            }
+        }
+
+        node.top = size == 0 ? NO_TERMS : Arrays.copyOf(best, size);
+    }
+
+    /**
+     * Insert into a score-descending array capped at MAX_SUGGESTIONS; returns the new size
+     */
+    private int offer(int[] best, int size, int termId) {
+        double score = scores[termId];
+        if (size == best.length && score <= scores[best[size - 1]]) return size;
+
+        int position = Math.min(size, best.length - 1);
+        while (position > 0 && scores[best[position - 1]] < score) {
+            best[position] = best[position - 1];
+            position--;
+        }
+        best[position] = termId;
+        return Math.min(size + 1, best.length);
+    }
+
+    private static Node child(Node node, char label) {
+        int index = Arrays.binarySearch(node.labels, label);
+        return index >= 0 ? node.children[index] : null;
+    }
+
+    private static void insertChild(Node node, char label, Node child) {
+        int index = -Arrays.binarySearch(node.labels, label) - 1;
+        char[] labels = new char[node.labels.length + 1];
+        Node[] children = new Node[node.children.length + 1];
+
+        System.arraycopy(node.labels, 0, labels, 0, index);
+        System.arraycopy(node.children, 0, children, 0, index);
+        labels[index] = label;
+        children[index] = child;
+        System.arraycopy(node.labels, index, labels, index + 1, node.labels.length - index);
+        System.arraycopy(node.children, index, children, index + 1, node.children.length - index);
+
+        node.labels = labels;
+        node.children = children;
+    }
+}
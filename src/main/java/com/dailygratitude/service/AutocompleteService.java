@@ -0,0 +1,232 @@
+package com.dailygratitude.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.dailygratitude.model.ChangeEvent;
+import com.dailygratitude.model.GratitudeEntry;
+
+/**
+ * Suggestions for the entry text (frequent words and two-word phrases) and for tags.
+ *
+ * The indexes are filled on a background thread from the term counts DatabaseService
+ * already keeps and from the tags column, then follow change events. The snapshot and
+ * the subscription are taken together, and events that arrive while the snapshot is
+ * being indexed are held back until it is done, so no entry is counted twice or lost.
+ * Lookups only walk an in-memory trie, so they take microseconds and never touch the
+ * database.
+ */
+public class AutocompleteService {
+
+    // Shortest partial word that gets suggestions
+    public static final int MIN_PREFIX_LENGTH = 2;
+
+    private final DatabaseService databaseService;
+    private final AutocompleteIndex terms = new AutocompleteIndex();
+    private final AutocompleteIndex tags = new AutocompleteIndex();
+
+    private List<ChangeEvent> heldEvents = new ArrayList<>(); // null once the build is done
+
+    public AutocompleteService(DatabaseService databaseService) {
+        this.databaseService = databaseService;
+    }
+
+    /**
+     * Build the indexes in the background. Suggestions are empty until the build finishes.
+     */
+    public void start() {
+        Thread builder = new Thread(() -> {
+            try {
+                long start = System.nanoTime();
+                List<Object[]> counts = new ArrayList<>();
+                // Copied out under the snapshot so no lock is held while indexing
+                List<GratitudeEntry> tagged = databaseService.snapshotAndSubscribe(() -> {
+                    databaseService.getTermStatistics().forEachCount((term, month, count) ->
+                            counts.add(new Object[] { term, month, count }));
+                    return databaseService.getEntryTags();
+                }, this::apply);
+
+                for (Object[] count : counts) {
+                    terms.add((String) count[0], (Integer) count[2], ((YearMonth) count[1]).atDay(15));
+                }
+                for (GratitudeEntry entry : tagged) {
+                    for (String tag : parseTags(entry.getTags())) {
+                        tags.add(tag, 1, entry.getCreatedDate());
+                    }
+                }
+                applyHeldEvents();
+
+                System.out.printf("🔤 Autocomplete ready: %d terms, %d tags in %d ms%n",
+                        terms.size(), tags.size(), (System.nanoTime() - start) / 1_000_000);
+            } catch (Exception e) {
+                System.err.println("❌ Failed to build autocomplete index: " + e.getMessage());
+                synchronized (this) {
+                    heldEvents = null;
+                }
+            }
+        }, "autocomplete-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * Completions for the text before the caret: phrases continuing the last two words first,
+     * then words completing the last one. Suggestions are whole terms, lowercased.
+     */
+    public List<String> suggestText(String textBeforeCaret, int limit) {
+        String[] words = lastWords(textBeforeCaret);
+        String partial = words[1];
+        if (partial.length() < MIN_PREFIX_LENGTH) return new ArrayList<>();
+
+        Set<String> result = new LinkedHashSet<>();
+        if (words[0] != null) {
+            result.addAll(terms.suggest(words[0] + " " + partial, limit));
+        }
+        for (String term : terms.suggest(partial, limit * 2)) {
+            if (result.size() >= limit) break;
+            if (term.indexOf(' ') < 0) result.add(term);
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Text before the caret with its partial word (or partial phrase) replaced by the suggestion,
+     * keeping a leading capital the user typed
+     */
+    public static String completeText(String textBeforeCaret, String suggestion) {
+        String[] words = lastWords(textBeforeCaret);
+        int replaced = words[1].length();
+        if (suggestion.indexOf(' ') >= 0 && words[0] != null) {
+            replaced += words[0].length() + 1;
+        }
+
+        int start = textBeforeCaret.length() - replaced;
+        if (start < textBeforeCaret.length() && Character.isUpperCase(textBeforeCaret.charAt(start))) {
+            suggestion = Character.toUpperCase(suggestion.charAt(0)) + suggestion.substring(1);
+        }
+        return textBeforeCaret.substring(0, start) + suggestion + " ";
+    }
+
+    /**
+     * Tag list with the tag being typed replaced by the suggestion, ready for the next tag
+     */
+    public static String completeTag(String tagText, String suggestion) {
+        int comma = tagText.lastIndexOf(',');
+        return tagText.substring(0, comma + 1) + (comma >= 0 ? " " : "") + suggestion + ", ";
+    }
+
+    /**
+     * Completions for the tag being typed at the end of a comma-separated tag list
+     */
+    public List<String> suggestTags(String tagText, int limit) {
+        int comma = tagText.lastIndexOf(',');
+        String partial = tagText.substring(comma + 1).trim().toLowerCase(Locale.ROOT);
+        if (partial.isEmpty()) return new ArrayList<>();
+
+        List<String> result = tags.suggest(partial, limit + 4);
+        // Don't offer tags that are already in the list
+        result.removeAll(parseTags(tagText.substring(0, comma + 1)));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * Tags in a comma-separated string, trimmed and lowercased, without duplicates
+     */
+    public static List<String> parseTags(String tagText) {
+        Set<String> result = new LinkedHashSet<>();
+        if (tagText != null) {
+            for (String tag : tagText.split(",")) {
+                tag = tag.trim().toLowerCase(Locale.ROOT);
+                if (!tag.isEmpty()) result.add(tag);
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    private void apply(List<ChangeEvent> events) {
+        synchronized (this) {
+            if (heldEvents != null) {
+                // Still indexing the snapshot: a removal now could arrive before the term it removes
+                heldEvents.addAll(events);
+                return;
+            }
+        }
+        applyEvents(events);
+    }
+
+    /**
+     * Apply what arrived during the build, in order, then let events through directly
+     */
+    private void applyHeldEvents() {
+        while (true) {
+            List<ChangeEvent> events;
+            synchronized (this) {
+                if (heldEvents.isEmpty()) {
+                    heldEvents = null;
+                    return;
+                }
+                events = heldEvents;
+                heldEvents = new ArrayList<>();
+            }
+            applyEvents(events);
+        }
+    }
+
+    private void applyEvents(List<ChangeEvent> events) {
+        for (ChangeEvent event : events) {
+            switch (event.getType()) {
+                case ENTRY_INSERTED:
+                    index(event.getEntry(), 1);
+                    break;
+                case ENTRY_UPDATED:
+                    index(event.getPreviousEntry(), -1);
+                    index(event.getEntry(), 1);
+                    break;
+                case ENTRY_DELETED:
+                    index(event.getEntry(), -1);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void index(GratitudeEntry entry, int sign) {
+        LocalDate date = entry.getCreatedDate();
+        for (Map.Entry<String, Integer> term : TermStatistics.countTerms(entry.getEntryText()).entrySet()) {
+            terms.add(term.getKey(), sign * term.getValue(), date);
+        }
+        for (String tag : parseTags(entry.getTags())) {
+            tags.add(tag, sign, date);
+        }
+    }
+
+    /**
+     * The word before the last one (null if none) and the partial last word, lowercased
+     */
+    private static String[] lastWords(String text) {
+        int end = text.length();
+        int start = end;
+        while (start > 0 && isWordChar(text.charAt(start - 1))) start--;
+        String partial = text.substring(start, end).toLowerCase(Locale.ROOT);
+
+        // Only a single space may separate the two words of a phrase
+        String previous = null;
+        if (start >= 2 && text.charAt(start - 1) == ' ' && isWordChar(text.charAt(start - 2))) {
+            int previousStart = start - 1;
+            while (previousStart > 0 && isWordChar(text.charAt(previousStart - 1))) previousStart--;
+            previous = text.substring(previousStart, start - 1).toLowerCase(Locale.ROOT);
+        }
+        return new String[] { previous, partial };
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetter(c) || c == '\'';
+    }
+}
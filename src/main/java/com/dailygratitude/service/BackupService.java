@@ -0,0 +1,395 @@
+package com.dailygratitude.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Online backups of the journal database into a rotating set of snapshots.
+ *
+ * Backups run on a background thread over their own connection using SQLite's
+ * online backup API, which copies the database a batch of pages at a time, so
+ * writes through DatabaseService are never blocked (the database is in WAL mode).
+ * Each backup is compared page by page with the previous snapshot: if only a few
+ * pages changed, just those pages are written as a delta file; otherwise a new
+ * full snapshot starts a new chain. Restoring replays a chain into a single file.
+ */
+public class BackupService {
+
+    private static final String FULL_SUFFIX = "-full.db";
+    private static final String DELTA_SUFFIX = "-delta.bin";
+    private static final int DELTA_MAGIC = 0x47524442; // "GRDB"
+    private static final int DELTA_VERSION = 1;
+
+    // Start a new full snapshot once a delta would hold more than this share of pages
+    private static final double MAX_DELTA_RATIO = 0.5;
+
+    // Deltas per chain before forcing a new full snapshot
+    private static final int MAX_DELTAS_PER_CHAIN = 24;
+
+    private static final DateTimeFormatter SNAPSHOT_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final String databaseName;
+    private final Path backupDirectory;
+    private final int retainedChains;
+
+    private Connection connection;
+    private ScheduledExecutorService scheduler;
+    private long lastDataVersion = -1;
+
+    public BackupService(String databaseName, Path backupDirectory, int retainedChains) {
+        // Fail now rather than on the first scheduled backup
+        quoteBackupTarget(backupDirectory);
+
+        this.databaseName = databaseName;
+        this.backupDirectory = backupDirectory;
+        this.retainedChains = Math.max(1, retainedChains);
+    }
+
+    /**
+     * Run a backup every intervalMinutes on a background thread
+     */
+    public synchronized void start(long initialDelayMinutes, long intervalMinutes) {
+        if (scheduler != null) return;
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "backup");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                backupNow();
+            } catch (Exception e) {
+                System.err.println("❌ Scheduled backup failed: " + e.getMessage());
+            }
+        }, initialDelayMinutes, intervalMinutes, TimeUnit.MINUTES);
+
+        System.out.println("💾 Backups scheduled every " + intervalMinutes + " min into " + backupDirectory);
+    }
+
+    /**
+     * Stop scheduling and release the backup connection
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        try {
+            if (connection != null && !connection.isClosed()) {
+                connection.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error closing backup connection: " + e.getMessage());
+        }
+        connection = null;
+    }
+
+    /**
+     * Take a snapshot now. Returns the snapshot file written, or null when nothing changed since the last one.
+     */
+    public synchronized Path backupNow() throws SQLException, IOException {
+        Files.createDirectories(backupDirectory);
+        Connection conn = getConnection();
+
+        // data_version changes whenever another connection commits
+        long dataVersion = queryLong(conn, "PRAGMA data_version");
+        List<Path> snapshots = listSnapshots();
+        if (dataVersion == lastDataVersion && !snapshots.isEmpty()) {
+            return null;
+        }
+
+        long start = System.nanoTime();
+        String stamp = LocalDateTime.now().format(SNAPSHOT_TIME);
+        Path copy = backupDirectory.resolve("snapshot-" + stamp + ".tmp");
+
+        try {
+            try (Statement stmt = conn.createStatement()) {
+                // sqlite-jdbc runs this through sqlite3_backup_step in small page batches
+                stmt.executeUpdate("backup to " + quoteBackupTarget(copy));
+            }
+
+            Path result = storeSnapshot(copy, stamp, snapshots);
+            lastDataVersion = dataVersion;
+            rotate();
+
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            if (result == null) {
+                System.out.println("💾 Backup skipped, no pages changed (" + millis + " ms)");
+            } else {
+                System.out.println("💾 Backup written: " + result.getFileName() + " (" + millis + " ms)");
+            }
+            return result;
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    /**
+     * All snapshot files (full and delta), oldest first
+     */
+    public List<Path> listSnapshots() throws IOException {
+        if (!Files.isDirectory(backupDirectory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(backupDirectory)) {
+            return files.filter(p -> isFull(p) || isDelta(p))
+                        .sorted()
+                        .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Rebuild the database as of the given snapshot into target (which must not be open)
+     */
+    public void restore(Path snapshot, Path target) throws IOException {
+        reconstruct(snapshot, target);
+        System.out.println("♻️ Restored " + snapshot.getFileName() + " into " + target);
+    }
+
+    private void reconstruct(Path snapshot, Path target) throws IOException {
+        List<Path> snapshots = listSnapshots();
+        int index = snapshots.indexOf(snapshot);
+        if (index < 0) {
+            throw new IOException("Unknown snapshot: " + snapshot);
+        }
+
+        // Walk back to the full snapshot that starts this chain
+        int base = index;
+        while (base >= 0 && !isFull(snapshots.get(base))) base--;
+        if (base < 0) {
+            throw new IOException("No full snapshot before " + snapshot.getFileName());
+        }
+
+        Path temp = target.resolveSibling(target.getFileName() + ".restoring");
+        Files.copy(snapshots.get(base), temp, StandardCopyOption.REPLACE_EXISTING);
+        for (int i = base + 1; i <= index; i++) {
+            applyDelta(snapshots.get(i), temp);
+        }
+
+        Files.deleteIfExists(target.resolveSibling(target.getFileName() + "-wal"));
+        Files.deleteIfExists(target.resolveSibling(target.getFileName() + "-shm"));
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Write the copy either as a delta against the reconstructed previous snapshot or as a new full snapshot
+     */
+    private Path storeSnapshot(Path copy, String stamp, List<Path> snapshots) throws IOException {
+        int chainStart = snapshots.size() - 1;
+        while (chainStart >= 0 && !isFull(snapshots.get(chainStart))) chainStart--;
+        int deltasInChain = chainStart < 0 ? 0 : snapshots.size() - 1 - chainStart;
+
+        if (chainStart >= 0 && deltasInChain < MAX_DELTAS_PER_CHAIN) {
+            Path previous = backupDirectory.resolve("previous.tmp");
+            try {
+                reconstruct(snapshots.get(snapshots.size() - 1), previous);
+                Path delta = backupDirectory.resolve("snapshot-" + stamp + DELTA_SUFFIX);
+                int changed = writeDelta(previous, copy, delta);
+                if (changed == 0) {
+                    Files.deleteIfExists(delta);
+                    return null;
+                }
+                if (changed >= 0) {
+                    return delta;
+                }
+            } finally {
+                Files.deleteIfExists(previous);
+            }
+        }
+
+        Path full = backupDirectory.resolve("snapshot-" + stamp + FULL_SUFFIX);
+        Files.move(copy, full, StandardCopyOption.ATOMIC_MOVE);
+        return full;
+    }
+
+    /**
+     * Write the pages of current that differ from previous. Returns the number of changed pages,
+     * or -1 (writing nothing) when a full snapshot would be the better choice.
+     */
+    private int writeDelta(Path previous, Path current, Path delta) throws IOException {
+        try (FileChannel oldChannel = FileChannel.open(previous, StandardOpenOption.READ);
+             FileChannel newChannel = FileChannel.open(current, StandardOpenOption.READ)) {
+
+            int pageSize = readPageSize(newChannel);
+            if (pageSize != readPageSize(oldChannel)) {
+                return -1;
+            }
+
+            int pageCount = (int) (newChannel.size() / pageSize);
+            int oldPageCount = (int) (oldChannel.size() / pageSize);
+            ByteBuffer oldPage = ByteBuffer.allocate(pageSize);
+            ByteBuffer newPage = ByteBuffer.allocate(pageSize);
+
+            List<Integer> changedPages = new ArrayList<>();
+            for (int page = 0; page < pageCount; page++) {
+                readPage(newChannel, page, pageSize, newPage);
+                if (page >= oldPageCount) {
+                    changedPages.add(page);
+                    continue;
+                }
+                readPage(oldChannel, page, pageSize, oldPage);
+                if (!Arrays.equals(oldPage.array(), newPage.array())) {
+                    changedPages.add(page);
+                }
+            }
+
+            if (changedPages.isEmpty() && pageCount == oldPageCount) {
+                return 0;
+            }
+            if (changedPages.size() > pageCount * MAX_DELTA_RATIO) {
+                return -1;
+            }
+
+            CRC32 crc = new CRC32();
+            try (OutputStream file = Files.newOutputStream(delta);
+                 DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(file), crc))) {
+                out.writeInt(DELTA_MAGIC);
+                out.writeInt(DELTA_VERSION);
+                out.writeInt(pageSize);
+                out.writeInt(pageCount);
+                out.writeInt(changedPages.size());
+                for (int page : changedPages) {
+                    readPage(newChannel, page, pageSize, newPage);
+                    out.writeInt(page);
+                    out.write(newPage.array());
+                }
+                out.flush();
+                // The checksum itself is written past the checked stream
+                new DataOutputStream(file).writeLong(crc.getValue());
+            }
+
+            return Math.max(1, changedPages.size());
+        }
+    }
+
+    private void applyDelta(Path delta, Path target) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(delta));
+             RandomAccessFile db = new RandomAccessFile(target.toFile(), "rw")) {
+
+            DataInputStream in = new DataInputStream(new CheckedInputStream(file, crc));
+            if (in.readInt() != DELTA_MAGIC || in.readInt() != DELTA_VERSION) {
+                throw new IOException("Not a backup delta: " + delta.getFileName());
+            }
+
+            int pageSize = in.readInt();
+            int pageCount = in.readInt();
+            int changed = in.readInt();
+            byte[] page = new byte[pageSize];
+
+            db.setLength((long) pageCount * pageSize);
+            for (int i = 0; i < changed; i++) {
+                int pageNumber = in.readInt();
+                in.readFully(page);
+                db.seek((long) pageNumber * pageSize);
+                db.write(page);
+            }
+
+            long expected = new DataInputStream(file).readLong();
+            if (expected != crc.getValue()) {
+                throw new IOException("Corrupt backup delta: " + delta.getFileName());
+            }
+        }
+    }
+
+    /**
+     * Keep only the newest retainedChains full snapshots and the deltas that follow them
+     */
+    private void rotate() throws IOException {
+        List<Path> snapshots = listSnapshots();
+        List<Integer> fullIndexes = new ArrayList<>();
+        for (int i = 0; i < snapshots.size(); i++) {
+            if (isFull(snapshots.get(i))) fullIndexes.add(i);
+        }
+
+        if (fullIndexes.size() <= retainedChains) return;
+
+        int keepFrom = fullIndexes.get(fullIndexes.size() - retainedChains);
+        for (int i = 0; i < keepFrom; i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+    }
+
+    private Connection getConnection() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            connection = DriverManager.getConnection("jdbc:sqlite:" + databaseName);
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("PRAGMA busy_timeout = 5000");
+            }
+        }
+        return connection;
+    }
+
+    /**
+     * Quote a path for sqlite-jdbc's "backup to" command. The command takes everything between
+     * a pair of quotes literally and has no escape for a quote inside them, so use the quote
+     * character the path doesn't contain.
+     */
+    private static String quoteBackupTarget(Path path) {
+        String target = path.toAbsolutePath().toString();
+        if (target.indexOf('\'') < 0) return "'" + target + "'";
+        if (target.indexOf('"') < 0) return "\"" + target + "\"";
+        throw new IllegalArgumentException("Backup path can't contain both ' and \": " + target);
+    }
+
+    private static long queryLong(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static int readPageSize(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(2);
+        channel.read(header, 16);
+        int pageSize = ((header.get(0) & 0xFF) << 8) | (header.get(1) & 0xFF);
+        return pageSize == 1 ? 65536 : pageSize;
+    }
+
+    private static void readPage(FileChannel channel, int page, int pageSize, ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        long position = (long) page * pageSize;
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) break;
+        }
+    }
+
+    private static boolean isFull(Path path) {
+        return path.getFileName().toString().endsWith(FULL_SUFFIX);
+    }
+
+    private static boolean isDelta(Path path) {
+        return path.getFileName().toString().endsWith(DELTA_SUFFIX);
+    }
+}
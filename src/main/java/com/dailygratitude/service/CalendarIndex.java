@@ -0,0 +1,236 @@
+package com.dailygratitude.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.dailygratitude.model.DayStats;
+
+/**
+ * In-memory per-day aggregate of gratitude entries, keyed by epoch-day.
+ *
+ * Holds entry counts and mood sums for every day that has entries, plus the
+ * bounds of every run of consecutive days, so streak queries are O(1) and a
+ * heatmap over a date range is O(days) without touching gratitude_entries.
+ * DatabaseService keeps it in sync on save and delete.
+ */
+public class CalendarIndex {
+
+    private static class DayBucket {
+        int entryCount;
+        int moodSum;
+        int moodCount;
+    }
+
+    private final Map<Long, DayBucket> days = new HashMap<>();
+
+    // Both endpoints of every streak run map to the opposite endpoint
+    private final Map<Long, Long> runBounds = new HashMap<>();
+
+    private int longestStreak;
+    private int totalEntries;
+
+    /**
+     * Drop everything so the index can be rebuilt from the base table
+     */
+    public synchronized void clear() {
+        days.clear();
+        runBounds.clear();
+        longestStreak = 0;
+        totalEntries = 0;
+    }
+
+    /**
+     * Record aggregated entries for a day (used by the rebuild query)
+     */
+    public synchronized void addDay(LocalDate date, int entryCount, int moodSum, int moodCount) {
+        if (entryCount <= 0) return;
+
+        long epochDay = date.toEpochDay();
+        DayBucket bucket = days.get(epochDay);
+        boolean newDay = bucket == null;
+        if (newDay) {
+            bucket = new DayBucket();
+            days.put(epochDay, bucket);
+        }
+
+        bucket.entryCount += entryCount;
+        totalEntries += entryCount;
+        bucket.moodSum += moodSum;
+        bucket.moodCount += moodCount;
+
+        if (newDay) {
+            joinRun(epochDay);
+        }
+    }
+
+    /**
+     * Record a single saved entry
+     */
+    public void recordEntry(LocalDate date, Integer moodRating) {
+        addDay(date, 1, moodRating != null ? moodRating : 0, moodRating != null ? 1 : 0);
+    }
+
+    /**
+     * Remove a single deleted entry
+     */
+    public synchronized void removeEntry(LocalDate date, Integer moodRating) {
+        long epochDay = date.toEpochDay();
+        DayBucket bucket = days.get(epochDay);
+        if (bucket == null) return;
+
+        bucket.entryCount--;
+        totalEntries--;
+        if (moodRating != null) {
+            bucket.moodSum -= moodRating;
+            bucket.moodCount--;
+        }
+
+        if (bucket.entryCount <= 0) {
+            days.remove(epochDay);
+            splitRun(epochDay);
+        }
+    }
+
+    /**
+     * Apply an edited entry's mood change; the entry count and streaks are unaffected
+     */
+    public synchronized void changeMood(LocalDate date, Integer oldMood, Integer newMood) {
+        DayBucket bucket = days.get(date.toEpochDay());
+        if (bucket == null) return;
+
+        if (oldMood != null) {
+            bucket.moodSum -= oldMood;
+            bucket.moodCount--;
+        }
+        if (newMood != null) {
+            bucket.moodSum += newMood;
+            bucket.moodCount++;
+        }
+    }
+
+    /**
+     * Number of consecutive days with entries ending today, or ending
+     * yesterday when nothing has been written yet today
+     */
+    public synchronized int getCurrentStreak(LocalDate today) {
+        long day = today.toEpochDay();
+        if (!days.containsKey(day)) {
+            day--;
+            if (!days.containsKey(day)) return 0;
+        }
+        return (int) (day - findRunStart(day) + 1);
+    }
+
+    /**
+     * Longest run of consecutive days with entries ever recorded
+     */
+    public synchronized int getLongestStreak() {
+        return longestStreak;
+    }
+
+    /**
+     * Number of entries on all days
+     */
+    public synchronized int getTotalEntryCount() {
+        return totalEntries;
+    }
+
+    /**
+     * Number of distinct days with at least one entry
+     */
+    public synchronized int getActiveDayCount() {
+        return days.size();
+    }
+
+    public synchronized DayStats getDayStats(LocalDate date) {
+        return toDayStats(date, days.get(date.toEpochDay()));
+    }
+
+    /**
+     * Stats for every day in [from, to], including empty days, for heatmap rendering
+     */
+    public synchronized List<DayStats> getHeatmap(LocalDate from, LocalDate to) {
+        long start = from.toEpochDay();
+        long end = to.toEpochDay();
+        List<DayStats> result = new ArrayList<>((int) Math.max(0, end - start + 1));
+
+        for (long day = start; day <= end; day++) {
+            result.add(toDayStats(LocalDate.ofEpochDay(day), days.get(day)));
+        }
+
+        return result;
+    }
+
+    private DayStats toDayStats(LocalDate date, DayBucket bucket) {
+        if (bucket == null) {
+            return new DayStats(date, 0, null);
+        }
+        Double averageMood = bucket.moodCount > 0 ? (double) bucket.moodSum / bucket.moodCount : null;
+        return new DayStats(date, bucket.entryCount, averageMood);
+    }
+
+    /**
+     * Merge a newly active day with the runs on either side of it - O(1)
+     */
+    private void joinRun(long day) {
+        long start = day;
+        long end = day;
+
+        if (days.containsKey(day - 1)) {
+            start = runBounds.remove(day - 1);
+        }
+        if (days.containsKey(day + 1)) {
+            end = runBounds.remove(day + 1);
+        }
+
+        runBounds.put(start, end);
+        runBounds.put(end, start);
+        longestStreak = Math.max(longestStreak, (int) (end - start + 1));
+    }
+
+    /**
+     * Split the run that contained a day that no longer has entries
+     */
+    private void splitRun(long day) {
+        long start = day;
+        while (!isRunStart(start)) start--;
+        long end = runBounds.get(start);
+
+        runBounds.remove(start);
+        runBounds.remove(end);
+
+        if (start <= day - 1) {
+            runBounds.put(start, day - 1);
+            runBounds.put(day - 1, start);
+        }
+        if (day + 1 <= end) {
+            runBounds.put(day + 1, end);
+            runBounds.put(end, day + 1);
+        }
+
+        if (end - start + 1 == longestStreak) {
+            longestStreak = 0;
+            for (Map.Entry<Long, Long> bound : runBounds.entrySet()) {
+                longestStreak = Math.max(longestStreak, (int) (bound.getValue() - bound.getKey() + 1));
+            }
+        }
+    }
+
+    private long findRunStart(long day) {
+        // Common case: the day is the last day of its run
+        if (!days.containsKey(day + 1)) {
+            return runBounds.get(day);
+        }
+        long start = day;
+        while (!isRunStart(start)) start--;
+        return start;
+    }
+
+    private boolean isRunStart(long day) {
+        Long other = runBounds.get(day);
+        return other != null && other >= day && !days.containsKey(day - 1);
+    }
+}
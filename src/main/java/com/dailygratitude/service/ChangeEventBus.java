@@ -0,0 +1,198 @@
+package com.dailygratitude.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+import com.dailygratitude.model.ChangeEvent;
+import com.dailygratitude.model.ChangeEvent.Type;
+
+/**
+ * Asynchronous, coalescing delivery of change events.
+ *
+ * Publishing only enqueues, so the writer never waits on subscribers. A dispatcher
+ * thread collects everything published within one frame (~16 ms) and hands each
+ * subscriber the whole batch, with repeated changes to the same entry folded into
+ * one: insert + update is an insert of the latest version, update + update keeps the
+ * first previous version, update + delete deletes the version subscribers last saw,
+ * insert + delete cancels out, and repeated showings of a quote collapse.
+ *
+ * Events are numbered as they are published, and a subscriber only receives events
+ * published after it subscribed, even if older ones are still waiting in the queue.
+ */
+public class ChangeEventBus {
+
+    private static final long COALESCE_MILLIS = 16;
+
+    private static class Subscription {
+        final Consumer<List<ChangeEvent>> subscriber;
+        final long firstSequence; // first event it receives
+
+        Subscription(Consumer<List<ChangeEvent>> subscriber, long firstSequence) {
+            this.subscriber = subscriber;
+            this.firstSequence = firstSequence;
+        }
+    }
+
+    private static class Published {
+        final long sequence;
+        final ChangeEvent event;
+
+        Published(long sequence, ChangeEvent event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
+    }
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final LinkedBlockingQueue<Published> queue = new LinkedBlockingQueue<>();
+
+    private Thread dispatcher;
+    private volatile boolean closed;
+    private long lastSequence;
+
+    /**
+     * Receive batches of the events published from now on, on the dispatcher thread.
+     * Subscribers must not block for long.
+     */
+    public synchronized void subscribe(Consumer<List<ChangeEvent>> subscriber) {
+        subscriptions.add(new Subscription(subscriber, lastSequence + 1));
+        if (dispatcher == null && !closed) {
+            dispatcher = new Thread(this::dispatchLoop, "change-events");
+            dispatcher.setDaemon(true);
+            dispatcher.start();
+        }
+    }
+
+    public void unsubscribe(Consumer<List<ChangeEvent>> subscriber) {
+        subscriptions.removeIf(s -> s.subscriber == subscriber);
+    }
+
+    /**
+     * Queue an event for delivery; a no-op when nobody is listening
+     */
+    public synchronized void publish(ChangeEvent event) {
+        lastSequence++;
+        if (!closed && !subscriptions.isEmpty()) {
+            queue.add(new Published(lastSequence, event));
+        }
+    }
+
+    /**
+     * Stop delivering; events still queued are dropped
+     */
+    public synchronized void close() {
+        closed = true;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+            dispatcher = null;
+        }
+        queue.clear();
+    }
+
+    private void dispatchLoop() {
+        List<Published> batch = new ArrayList<>();
+        while (!closed) {
+            try {
+                batch.add(queue.take());
+                // Let the rest of a burst arrive so it is delivered as one batch
+                Thread.sleep(COALESCE_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch);
+
+            long firstSequence = batch.get(0).sequence;
+            List<ChangeEvent> coalesced = coalesce(eventsFrom(batch, firstSequence));
+            for (Subscription subscription : subscriptions) {
+                // Someone who subscribed part-way through the batch only gets the later events
+                List<ChangeEvent> events = subscription.firstSequence <= firstSequence
+                        ? coalesced : coalesce(eventsFrom(batch, subscription.firstSequence));
+                if (events.isEmpty()) continue;
+                try {
+                    subscription.subscriber.accept(events);
+                } catch (RuntimeException e) {
+                    System.err.println("❌ Change event subscriber failed: " + e.getMessage());
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private static List<ChangeEvent> eventsFrom(List<Published> batch, long firstSequence) {
+        List<ChangeEvent> events = new ArrayList<>(batch.size());
+        for (Published published : batch) {
+            if (published.sequence >= firstSequence) events.add(published.event);
+        }
+        return events;
+    }
+
+    /**
+     * Fold events for the same entry or quote into one, keeping the order of first appearance
+     */
+    static List<ChangeEvent> coalesce(List<ChangeEvent> events) {
+        List<ChangeEvent> result = new ArrayList<>(events.size());
+        Map<Long, Integer> entrySlots = new HashMap<>();
+        Map<String, Integer> quoteSlots = new HashMap<>();
+
+        for (ChangeEvent event : events) {
+            if (!event.isEntryEvent()) {
+                String key = event.getQuote().getText() + "\u0000" + event.getQuote().getAuthor();
+                Integer slot = quoteSlots.get(key);
+                if (slot == null) {
+                    quoteSlots.put(key, result.size());
+                    result.add(event);
+                } else {
+                    result.set(slot, event);
+                }
+                continue;
+            }
+
+            Long id = event.getEntry().getId();
+            Integer slot = entrySlots.get(id);
+            ChangeEvent earlier = slot != null ? result.get(slot) : null;
+            if (earlier == null) {
+                entrySlots.put(id, result.size());
+                result.add(event);
+                continue;
+            }
+
+            ChangeEvent merged = merge(earlier, event);
+            if (merged != null) {
+                result.set(slot, merged);
+            } else if (earlier.getType() == Type.ENTRY_INSERTED && event.getType() == Type.ENTRY_DELETED) {
+                result.set(slot, null); // never seen by subscribers
+                entrySlots.remove(id);
+            } else {
+                entrySlots.put(id, result.size());
+                result.add(event);
+            }
+        }
+
+        result.removeIf(Objects::isNull);
+        return result;
+    }
+
+    /**
+     * One event equivalent to earlier followed by later, or null if there isn't one
+     */
+    private static ChangeEvent merge(ChangeEvent earlier, ChangeEvent later) {
+        switch (earlier.getType()) {
+            case ENTRY_INSERTED:
+                return later.getType() == Type.ENTRY_UPDATED ? ChangeEvent.entryInserted(later.getEntry()) : null;
+            case ENTRY_UPDATED:
+                if (later.getType() == Type.ENTRY_UPDATED) {
+                    return ChangeEvent.entryUpdated(earlier.getPreviousEntry(), later.getEntry());
+                }
+                return later.getType() == Type.ENTRY_DELETED ? ChangeEvent.entryDeleted(earlier.getPreviousEntry()) : null;
+            default:
+                // A deleted id coming back (e.g. from sync) stays as two events
+                return null;
+        }
+    }
+}
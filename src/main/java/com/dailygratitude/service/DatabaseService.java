@@ -1,5 +1,11 @@
 package com.dailygratitude.service;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
@@ -7,35 +13,112 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
+import com.dailygratitude.model.ChangeEvent;
 import com.dailygratitude.model.GratitudeEntry;
+import com.dailygratitude.model.Quote;
+import com.dailygratitude.model.SyncBundle;
+import com.dailygratitude.model.SyncChange;
 
 public class DatabaseService {
     
     private static final String DATABASE_NAME = "dailygratitude.db";
-    private static final String DATABASE_URL = "jdbc:sqlite:" + DATABASE_NAME;
+    
+    // Entries longer than this (in characters) are stored compressed
+    private static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+    
+    // Prefix kept uncompressed in entry_preview for list views
+    private static final int PREVIEW_LENGTH = 200;
+    
+    // Entries used to train a compression dictionary during migration
+    private static final int DICTIONARY_SAMPLE_SIZE = 2000;
+    
+    // UTC timestamp format of changes.changed_at; sorts as text
+    private static final String CHANGE_TIME_FORMAT = "%Y-%m-%dT%H:%M:%f";
+    
+    // Columns read by list queries: the compressed text stays on disk until getEntryText()
+    private static final String LIST_COLUMNS =
+        "id, uuid, entry_text, created_date, created_datetime, mood_rating, tags, entry_preview, " +
+        "entry_blob IS NOT NULL AS compressed";
+    
+    private final String databaseName;
+    private final String databaseUrl;
+    private final CalendarIndex calendarIndex = new CalendarIndex();
+    private final SimilarityIndex similarityIndex = new SimilarityIndex();
+    private final TermStatistics termStatistics = new TermStatistics();
+    private final EntryCompressor entryCompressor = new EntryCompressor();
+    private final ChangeEventBus changeEvents = new ChangeEventBus();
+    private final QueryProfiler queryProfiler;
     
     private Connection connection;
+    private long similarityIndexForeignChanges = -1; // foreignEntryChanges() the similarity index reflects
+    private ScheduledExecutorService maintenanceScheduler;
+    private ScheduledFuture<?> quoteRetentionTask;
+    private volatile int compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
+    private String deviceId;
+    
+    public DatabaseService() {
+        this(DATABASE_NAME);
+    }
+    
+    /**
+     * Use a specific database file (e.g. a temp copy for tools and benchmarks)
+     */
+    public DatabaseService(String databaseName) {
+        this.databaseName = databaseName;
+        this.databaseUrl = "jdbc:sqlite:" + databaseName;
+        this.queryProfiler = new QueryProfiler(databaseName + ".slow.%g.log");
+    }
     
     /**
      * Initialize database connection and create tables if they don't exist
      */
     public void initializeDatabase() {
         try {
-            // Create connection
-            connection = DriverManager.getConnection(DATABASE_URL);
+            // Create connection; every statement run through it is timed
+            connection = queryProfiler.wrap(DriverManager.getConnection(databaseUrl));
             
             // Enable foreign keys
             connection.createStatement().execute("PRAGMA foreign_keys = ON");
             
+            // WAL lets background readers (backups, tools) run without blocking writes.
+            // journal_mode returns a row, so the statement must be closed before the next write.
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("PRAGMA journal_mode = WAL");
+                stmt.execute("PRAGMA busy_timeout = 5000");
+            }
+            
             // Create tables
             createTables();
+            migrateSchema();
+            setUpChangeLog();
+            loadCompressionDictionaries();
+            setUpEntryVersion();
             
-            System.out.println("✅ Database initialized successfully! File: " + DATABASE_NAME);
+            // Build in-memory aggregates
+            rebuildCalendarIndex();
+            loadSimilarityIndex();
+            loadTermStatistics();
+            
+            System.out.println("✅ Database initialized successfully! File: " + databaseName);
             
         } catch (SQLException e) {
             System.err.println("❌ Database initialization failed: " + e.getMessage());
@@ -50,31 +133,498 @@ public class DatabaseService {
         String createGratitudeEntriesTable = 
             "CREATE TABLE IF NOT EXISTS gratitude_entries (" +
             "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "uuid TEXT DEFAULT NULL, " +
             "entry_text TEXT NOT NULL, " +
             "created_date DATE NOT NULL, " +
             "created_datetime TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
             "mood_rating INTEGER DEFAULT NULL, " +
             "tags TEXT DEFAULT NULL, " +
+            "entry_preview TEXT DEFAULT NULL, " +
+            "entry_blob BLOB DEFAULT NULL, " +
+            "dictionary_id INTEGER DEFAULT NULL, " +
+            "month_day TEXT GENERATED ALWAYS AS (substr(created_date, 6, 5)) VIRTUAL, " +
             "CONSTRAINT check_mood_rating CHECK (mood_rating IS NULL OR (mood_rating >= 1 AND mood_rating <= 5))" +
             ")";
         
-        String createQuotesHistoryTable = 
-            "CREATE TABLE IF NOT EXISTS quotes_history (" +
+        // Each distinct quote is stored once, keyed by a hash of its normalized content
+        String createQuotesTable = 
+            "CREATE TABLE IF NOT EXISTS quotes (" +
             "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "content_hash TEXT NOT NULL UNIQUE, " +
             "quote_text TEXT NOT NULL, " +
             "author TEXT NOT NULL, " +
-            "date_shown DATE NOT NULL, " +
             "api_source TEXT DEFAULT NULL, " +
             "created_datetime TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
             ")";
         
+        // Every time a quote is displayed
+        String createQuoteShowingsTable = 
+            "CREATE TABLE IF NOT EXISTS quote_showings (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "quote_id INTEGER NOT NULL REFERENCES quotes(id) ON DELETE CASCADE, " +
+            "date_shown DATE NOT NULL, " +
+            "shown_datetime TIMESTAMP NOT NULL" +
+            ")";
+        
+        String createCompressionDictionariesTable = 
+            "CREATE TABLE IF NOT EXISTS compression_dictionaries (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "dictionary BLOB NOT NULL, " +
+            "created_datetime TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+            ")";
+        
+        // Id of the draft (see DraftJournal) the last entry was saved from
+        String createSavedDraftTable = 
+            "CREATE TABLE IF NOT EXISTS saved_draft (" +
+            "id INTEGER PRIMARY KEY CHECK (id = 1), " +
+            "draft_id INTEGER NOT NULL" +
+            ")";
+        
+        // Word / phrase counts per month, maintained on save and delete
+        String createTermCountsTable = 
+            "CREATE TABLE IF NOT EXISTS term_counts (" +
+            "term TEXT NOT NULL, " +
+            "month TEXT NOT NULL, " +
+            "count INTEGER NOT NULL, " +
+            "PRIMARY KEY (term, month)" +
+            ") WITHOUT ROWID";
+        
+        // Sync: the latest change to every entry (including deleted ones), numbered per device
+        String createChangesTable = 
+            "CREATE TABLE IF NOT EXISTS changes (" +
+            "entry_uuid TEXT PRIMARY KEY, " +
+            "device_id TEXT NOT NULL, " +
+            "device_seq INTEGER NOT NULL, " +
+            "op TEXT NOT NULL CHECK (op IN ('U', 'D')), " +
+            "changed_at TEXT NOT NULL, " +
+            "UNIQUE (device_id, device_seq)" +
+            ") WITHOUT ROWID";
+        
+        // Sync: highest sequence number seen from each device, including this one
+        String createSyncVersionsTable = 
+            "CREATE TABLE IF NOT EXISTS sync_versions (" +
+            "device_id TEXT PRIMARY KEY, " +
+            "seq INTEGER NOT NULL" +
+            ") WITHOUT ROWID";
+        
+        // Sync: what each peer reported having in the last bundle it sent us
+        String createSyncPeersTable = 
+            "CREATE TABLE IF NOT EXISTS sync_peers (" +
+            "peer_id TEXT NOT NULL, " +
+            "device_id TEXT NOT NULL, " +
+            "seq INTEGER NOT NULL, " +
+            "PRIMARY KEY (peer_id, device_id)" +
+            ") WITHOUT ROWID";
+        
+        String createSyncStateTable = 
+            "CREATE TABLE IF NOT EXISTS sync_state (" +
+            "key TEXT PRIMARY KEY, " +
+            "value TEXT NOT NULL" +
+            ") WITHOUT ROWID";
+        
         try (Statement stmt = connection.createStatement()) {
             stmt.execute(createGratitudeEntriesTable);
-            stmt.execute(createQuotesHistoryTable);
+            stmt.execute(createQuotesTable);
+            stmt.execute(createQuoteShowingsTable);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_quote_showings_date ON quote_showings(date_shown)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_quote_showings_recent ON quote_showings(shown_datetime)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_quote_showings_quote ON quote_showings(quote_id, shown_datetime)");
+            stmt.execute(createCompressionDictionariesTable);
+            stmt.execute(createSavedDraftTable);
+            stmt.execute(createTermCountsTable);
+            stmt.execute(createChangesTable);
+            stmt.execute(createSyncVersionsTable);
+            stmt.execute(createSyncPeersTable);
+            stmt.execute(createSyncStateTable);
             System.out.println("✅ Database tables created/verified");
         }
     }
     
+    /**
+     * Count changes to entry text in entry_table_version, from every connection, and the
+     * share made through this one in a per-connection temp table. The difference tells
+     * whether another connection changed entries since the similarity index was built.
+     */
+    private void setUpEntryVersion() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS entry_table_version (" +
+                         "id INTEGER PRIMARY KEY CHECK (id = 1), version INTEGER NOT NULL)");
+            stmt.execute("INSERT OR IGNORE INTO entry_table_version (id, version) VALUES (1, 0)");
+            stmt.execute("CREATE TEMP TABLE IF NOT EXISTS own_entry_changes (" +
+                         "id INTEGER PRIMARY KEY CHECK (id = 1), changes INTEGER NOT NULL)");
+            stmt.execute("INSERT OR IGNORE INTO own_entry_changes (id, changes) VALUES (1, 0)");
+            
+            String[] events = { "AFTER INSERT", "AFTER UPDATE OF entry_text, entry_blob", "AFTER DELETE" };
+            String[] names = { "insert", "update", "delete" };
+            for (int i = 0; i < events.length; i++) {
+                stmt.execute("CREATE TRIGGER IF NOT EXISTS trg_entries_version_" + names[i] + " " + events[i] +
+                             " ON gratitude_entries BEGIN UPDATE entry_table_version SET version = version + 1; END");
+                // Temp triggers only fire for statements run on this connection
+                stmt.execute("CREATE TEMP TRIGGER IF NOT EXISTS trg_own_entries_" + names[i] + " " + events[i] +
+                             " ON main.gratitude_entries BEGIN UPDATE own_entry_changes SET changes = changes + 1; END");
+            }
+        }
+    }
+    
+    /**
+     * Changes to entry text made by other connections since this one opened
+     */
+    private long foreignEntryChanges() throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT v.version - o.changes FROM entry_table_version v, own_entry_changes o")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+    
+    /**
+     * Bring databases created by older versions up to the current schema
+     */
+    private void migrateSchema() throws SQLException {
+        List<String> columns = new ArrayList<>();
+        
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_xinfo(gratitude_entries)")) {
+            while (rs.next()) {
+                columns.add(rs.getString("name"));
+            }
+        }
+        
+        if (!columns.contains("entry_blob")) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("ALTER TABLE gratitude_entries ADD COLUMN entry_preview TEXT DEFAULT NULL");
+                stmt.execute("ALTER TABLE gratitude_entries ADD COLUMN entry_blob BLOB DEFAULT NULL");
+                stmt.execute("ALTER TABLE gratitude_entries ADD COLUMN dictionary_id INTEGER DEFAULT NULL");
+            }
+            System.out.println("🔧 Added compression columns to gratitude_entries");
+            
+            if (compressionThreshold > 0) {
+                compressExistingEntries();
+            }
+        }
+        
+        if (tableExists("quotes_history")) {
+            migrateQuotesHistory();
+        }
+        
+        if (!columns.contains("month_day")) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("ALTER TABLE gratitude_entries ADD COLUMN month_day TEXT " +
+                             "GENERATED ALWAYS AS (substr(created_date, 6, 5)) VIRTUAL");
+            }
+            System.out.println("🔧 Added month_day column to gratitude_entries");
+        }
+        
+        if (!columns.contains("uuid")) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("ALTER TABLE gratitude_entries ADD COLUMN uuid TEXT DEFAULT NULL");
+            }
+            System.out.println("🔧 Added uuid column to gratitude_entries");
+        }
+        assignMissingUuids();
+        
+        try (Statement stmt = connection.createStatement()) {
+            // Ordered like getEntriesOnThisDay reads it, so the query stops after `limit` rows without sorting
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_entries_month_day_time ON gratitude_entries(month_day, created_datetime)");
+            stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_entries_uuid ON gratitude_entries(uuid)");
+        }
+    }
+    
+    /**
+     * Give entries written before sync existed a uuid derived from their content and id, so two
+     * copies of the same database file agree on it and don't duplicate each other's entries
+     */
+    private void assignMissingUuids() throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        int assigned = 0;
+        
+        try {
+            connection.setAutoCommit(false);
+            
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT * FROM gratitude_entries WHERE uuid IS NULL");
+                 PreparedStatement update = connection.prepareStatement("UPDATE gratitude_entries SET uuid = ? WHERE id = ?")) {
+                while (rs.next()) {
+                    GratitudeEntry entry = mapResultSetToGratitudeEntry(rs);
+                    String identity = entry.getId() + "\u0000" + rs.getString("created_datetime") + "\u0000" + entry.getEntryText();
+                    update.setString(1, UUID.nameUUIDFromBytes(identity.getBytes(StandardCharsets.UTF_8)).toString());
+                    update.setLong(2, entry.getId());
+                    update.addBatch();
+                    assigned++;
+                }
+                update.executeBatch();
+            }
+            
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        
+        if (assigned > 0) {
+            System.out.println("🔧 Assigned uuids to " + assigned + " entries");
+        }
+    }
+    
+    /**
+     * Create this device's identity and the triggers that record every entry change in the changes table.
+     * The first time, every existing entry is logged as a change by this device.
+     */
+    private void setUpChangeLog() throws SQLException {
+        deviceId = readSyncState("device_id");
+        
+        if (deviceId == null) {
+            String newDeviceId = UUID.randomUUID().toString();
+            boolean autoCommit = connection.getAutoCommit();
+            
+            try {
+                connection.setAutoCommit(false);
+                writeSyncState("device_id", newDeviceId);
+                
+                int logged;
+                try (PreparedStatement pstmt = connection.prepareStatement(
+                        "INSERT OR IGNORE INTO changes (entry_uuid, device_id, device_seq, op, changed_at) " +
+                        "SELECT uuid, ?, ROW_NUMBER() OVER (ORDER BY id), 'U', " +
+                        "COALESCE(strftime('" + CHANGE_TIME_FORMAT + "', created_datetime, 'utc'), '1970-01-01T00:00:00.000') " +
+                        "FROM gratitude_entries")) {
+                    pstmt.setString(1, newDeviceId);
+                    logged = pstmt.executeUpdate();
+                }
+                try (PreparedStatement pstmt = connection.prepareStatement(
+                        "INSERT INTO sync_versions (device_id, seq) VALUES (?, ?)")) {
+                    pstmt.setString(1, newDeviceId);
+                    pstmt.setLong(2, logged);
+                    pstmt.executeUpdate();
+                }
+                
+                connection.commit();
+                deviceId = newDeviceId;
+                System.out.println("🔧 Sync device id " + deviceId + ", logged " + logged + " existing entries");
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+        
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(changeLogTrigger("trg_entries_log_insert", "AFTER INSERT", "NEW", "U"));
+            stmt.execute(changeLogTrigger("trg_entries_log_update",
+                    "AFTER UPDATE OF entry_text, entry_blob, mood_rating, tags", "NEW", "U"));
+            stmt.execute(changeLogTrigger("trg_entries_log_delete", "AFTER DELETE", "OLD", "D"));
+        }
+    }
+    
+    /**
+     * Trigger that takes the next local sequence number and replaces the entry's row in changes.
+     * The timestamp never goes backwards for an entry, so a local edit always supersedes
+     * whatever version this device already had, even if another device's clock is ahead.
+     */
+    private static String changeLogTrigger(String name, String event, String row, String op) {
+        String localDevice = "(SELECT value FROM sync_state WHERE key = 'device_id')";
+        return "CREATE TRIGGER IF NOT EXISTS " + name + " " + event + " ON gratitude_entries " +
+               "WHEN NOT EXISTS (SELECT 1 FROM sync_state WHERE key = 'suppress_change_log') " +
+               "BEGIN " +
+               "UPDATE sync_versions SET seq = seq + 1 WHERE device_id = " + localDevice + "; " +
+               "INSERT OR REPLACE INTO changes (entry_uuid, device_id, device_seq, op, changed_at) " +
+               "SELECT " + row + ".uuid, v.device_id, v.seq, '" + op + "', " +
+               "max(strftime('" + CHANGE_TIME_FORMAT + "', 'now'), COALESCE((SELECT strftime('" + CHANGE_TIME_FORMAT + "', " +
+               "changed_at, '+0.001 seconds') FROM changes WHERE entry_uuid = " + row + ".uuid), '')) " +
+               "FROM sync_versions v WHERE v.device_id = " + localDevice + "; " +
+               "END";
+    }
+    
+    private String readSyncState(String key) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement("SELECT value FROM sync_state WHERE key = ?")) {
+            pstmt.setString(1, key);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+    
+    private void writeSyncState(String key, String value) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "INSERT OR REPLACE INTO sync_state (key, value) VALUES (?, ?)")) {
+            pstmt.setString(1, key);
+            pstmt.setString(2, value);
+            pstmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Stop (or resume) logging entry changes, for rewrites that don't change content and for applying
+     * changes that are logged under their original device. Only call inside a transaction.
+     */
+    private void setChangeLogSuppressed(boolean suppressed) throws SQLException {
+        if (suppressed) {
+            writeSyncState("suppress_change_log", "1");
+        } else {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("DELETE FROM sync_state WHERE key = 'suppress_change_log'");
+            }
+        }
+    }
+    
+    private boolean tableExists(String table) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+            pstmt.setString(1, table);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+    
+    /**
+     * Move rows from the old one-row-per-showing quotes_history table into quotes / quote_showings
+     */
+    private void migrateQuotesHistory() throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        int migrated = 0;
+        
+        try {
+            connection.setAutoCommit(false);
+            
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(
+                     "SELECT quote_text, author, date_shown, api_source, created_datetime FROM quotes_history ORDER BY id")) {
+                while (rs.next()) {
+                    String shownAt = rs.getString("created_datetime");
+                    insertQuoteShowing(rs.getString("quote_text"), rs.getString("author"), rs.getString("api_source"),
+                            rs.getString("date_shown"), shownAt != null ? shownAt.replace(' ', 'T') : rs.getString("date_shown") + "T00:00");
+                    migrated++;
+                }
+            }
+            
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("DROP TABLE quotes_history");
+            }
+            
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        
+        System.out.println("🔧 Migrated " + migrated + " rows from quotes_history");
+    }
+    
+    private void loadCompressionDictionaries() throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id, dictionary FROM compression_dictionaries")) {
+            while (rs.next()) {
+                entryCompressor.addDictionary(rs.getInt("id"), rs.getBytes("dictionary"));
+            }
+        }
+    }
+    
+    /**
+     * Store entries longer than this many characters compressed; 0 disables compression.
+     * Values below the preview length are raised to it.
+     */
+    public void setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold <= 0 ? 0 : Math.max(compressionThreshold, PREVIEW_LENGTH + 1);
+    }
+    
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+    
+    private boolean shouldCompress(String entryText) {
+        return compressionThreshold > 0 && entryText.length() >= compressionThreshold;
+    }
+    
+    /**
+     * Train a dictionary on the existing entries and compress every long entry still stored as plain text.
+     * Returns the number of entries compressed.
+     */
+    public synchronized int compressExistingEntries() throws SQLException {
+        if (compressionThreshold <= 0) {
+            return 0;
+        }
+        
+        List<String> samples = new ArrayList<>();
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "SELECT entry_text FROM gratitude_entries WHERE entry_blob IS NULL ORDER BY id DESC LIMIT ?")) {
+            pstmt.setInt(1, DICTIONARY_SAMPLE_SIZE);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    samples.add(rs.getString("entry_text"));
+                }
+            }
+        }
+        
+        if (samples.isEmpty()) {
+            return 0;
+        }
+        
+        boolean autoCommit = connection.getAutoCommit();
+        int compressed = 0;
+        
+        try {
+            connection.setAutoCommit(false);
+            
+            // Same content in a different representation, nothing to sync
+            setChangeLogSuppressed(true);
+            
+            byte[] dictionary = EntryCompressor.trainDictionary(samples);
+            try (PreparedStatement pstmt = connection.prepareStatement(
+                    "INSERT INTO compression_dictionaries (dictionary) VALUES (?)")) {
+                pstmt.setBytes(1, dictionary);
+                pstmt.executeUpdate();
+            }
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+                rs.next();
+                entryCompressor.addDictionary(rs.getInt(1), dictionary);
+            }
+            
+            String selectSql = "SELECT id, entry_text FROM gratitude_entries WHERE entry_blob IS NULL AND length(entry_text) >= ?";
+            String updateSql = "UPDATE gratitude_entries SET entry_text = '', entry_preview = ?, entry_blob = ?, dictionary_id = ? WHERE id = ?";
+            
+            try (PreparedStatement select = connection.prepareStatement(selectSql);
+                 PreparedStatement update = connection.prepareStatement(updateSql)) {
+                select.setInt(1, compressionThreshold);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        String entryText = rs.getString("entry_text");
+                        update.setString(1, entryText.substring(0, PREVIEW_LENGTH));
+                        update.setBytes(2, entryCompressor.compress(entryText));
+                        update.setInt(3, entryCompressor.getCurrentDictionaryId());
+                        update.setLong(4, rs.getLong("id"));
+                        update.addBatch();
+                        compressed++;
+                    }
+                }
+                update.executeBatch();
+            }
+            
+            setChangeLogSuppressed(false);
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        
+        if (compressed > 0) {
+            // Return the space freed by the plain text to the file system
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("VACUUM");
+            }
+        }
+        
+        System.out.println("🗜️ Compressed " + compressed + " existing entries");
+        return compressed;
+    }
+    
     /**
      * Save a gratitude entry to the database
      */
@@ -93,17 +643,34 @@ public class DatabaseService {
      * Save a complete gratitude entry - FIXED for SQLite compatibility
      */
     public long saveGratitudeEntry(String entryText, Integer moodRating, String tags) throws SQLException {
-        String sql = "INSERT INTO gratitude_entries (entry_text, created_date, created_datetime, mood_rating, tags) VALUES (?, ?, ?, ?, ?)";
+        return saveGratitudeEntry(entryText, moodRating, tags, 0);
+    }
+    
+    /**
+     * Save an entry written in the draft with the given id (see DraftJournal). The id is
+     * committed with the entry, so a draft restored after a crash can be recognized as saved.
+     */
+    public synchronized long saveGratitudeEntry(String entryText, Integer moodRating, String tags, long draftId) throws SQLException {
+        String sql = "INSERT INTO gratitude_entries (entry_text, created_date, created_datetime, mood_rating, tags, " +
+                     "entry_preview, entry_blob, dictionary_id, uuid) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
         
         PreparedStatement pstmt = null;
         Statement stmt = null;
         ResultSet rs = null;
         
+        LocalDate createdDate = LocalDate.now();
+        LocalDateTime createdDateTime = LocalDateTime.now();
+        String uuid = UUID.randomUUID().toString();
+        Map<String, Integer> terms = TermStatistics.countTerms(entryText);
+        boolean autoCommit = connection.getAutoCommit();
+        
         try {
+            // The entry, its term counts and the draft id are committed together
+            connection.setAutoCommit(false);
+            
             pstmt = connection.prepareStatement(sql);
-            pstmt.setString(1, entryText);
-            pstmt.setString(2, LocalDate.now().toString());
-            pstmt.setString(3, LocalDateTime.now().toString());
+            pstmt.setString(2, createdDate.toString());
+            pstmt.setString(3, createdDateTime.toString());
             
             if (moodRating != null) {
                 pstmt.setInt(4, moodRating);
@@ -112,6 +679,8 @@ public class DatabaseService {
             }
             
             pstmt.setString(5, tags);
+            bindEntryText(pstmt, entryText, 1, 6);
+            pstmt.setString(9, uuid);
             
             int affectedRows = pstmt.executeUpdate();
             
@@ -121,6 +690,23 @@ public class DatabaseService {
                 rs = stmt.executeQuery("SELECT last_insert_rowid()");
                 if (rs.next()) {
                     long id = rs.getLong(1);
+                    updateTermCounts(createdDate, terms, 1);
+                    if (draftId != 0) {
+                        writeSavedDraftId(draftId);
+                    }
+                    connection.commit();
+                    
+                    calendarIndex.recordEntry(createdDate, moodRating);
+                    similarityIndex.add(id, entryText);
+                    termStatistics.apply(createdDate, terms, 1);
+                    
+                    GratitudeEntry saved = new GratitudeEntry(entryText, moodRating);
+                    saved.setId(id);
+                    saved.setUuid(uuid);
+                    saved.setCreatedDate(createdDate);
+                    saved.setCreatedDateTime(createdDateTime);
+                    saved.setTags(tags);
+                    changeEvents.publish(ChangeEvent.entryInserted(saved));
                     System.out.println("✅ Gratitude entry saved with ID: " + id);
                     return id;
                 }
@@ -128,48 +714,413 @@ public class DatabaseService {
             
             throw new SQLException("Failed to save gratitude entry, no ID obtained.");
             
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
         } finally {
             if (rs != null) rs.close();
             if (stmt != null) stmt.close();
             if (pstmt != null) pstmt.close();
+            connection.setAutoCommit(autoCommit);
         }
     }
     
     /**
-     * Save a quote to history for tracking what quotes were shown
+     * Id of the draft the last entry was saved from, or 0
+     */
+    public long getSavedDraftId() throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT draft_id FROM saved_draft")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+    
+    private void writeSavedDraftId(long draftId) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "INSERT OR REPLACE INTO saved_draft (id, draft_id) VALUES (1, ?)")) {
+            pstmt.setLong(1, draftId);
+            pstmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Bind entry text to the entry_text parameter and the three compression columns that follow
+     * previewIndex (entry_preview, entry_blob, dictionary_id), compressing long entries
      */
-    public void saveQuoteToHistory(String quoteText, String author, String apiSource) {
-        String sql = "INSERT INTO quotes_history (quote_text, author, date_shown, api_source) VALUES (?, ?, ?, ?)";
+    private void bindEntryText(PreparedStatement pstmt, String entryText, int textIndex, int previewIndex) throws SQLException {
+        if (shouldCompress(entryText)) {
+            int dictionaryId = entryCompressor.getCurrentDictionaryId();
+            pstmt.setString(textIndex, "");
+            pstmt.setString(previewIndex, entryText.substring(0, PREVIEW_LENGTH));
+            pstmt.setBytes(previewIndex + 1, entryCompressor.compress(entryText, dictionaryId));
+            pstmt.setInt(previewIndex + 2, dictionaryId);
+        } else {
+            pstmt.setString(textIndex, entryText);
+            pstmt.setNull(previewIndex, Types.VARCHAR);
+            pstmt.setNull(previewIndex + 1, Types.BLOB);
+            pstmt.setNull(previewIndex + 2, Types.INTEGER);
+        }
+    }
+    
+    /**
+     * Replace the text, mood and tags of an existing entry. Returns false if there is no such entry.
+     */
+    public synchronized boolean updateEntry(long entryId, String entryText, Integer moodRating, String tags) throws SQLException {
+        String selectSql = "SELECT * FROM gratitude_entries WHERE id = ?";
+        String sql = "UPDATE gratitude_entries SET entry_text = ?, mood_rating = ?, tags = ?, " +
+                     "entry_preview = ?, entry_blob = ?, dictionary_id = ? WHERE id = ?";
         
         PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        boolean autoCommit = connection.getAutoCommit();
         
         try {
-            pstmt = connection.prepareStatement(sql);
-            pstmt.setString(1, quoteText);
-            pstmt.setString(2, author);
-            pstmt.setString(3, LocalDate.now().toString());
-            pstmt.setString(4, apiSource);
+            connection.setAutoCommit(false);
+            
+            pstmt = connection.prepareStatement(selectSql);
+            pstmt.setLong(1, entryId);
+            rs = pstmt.executeQuery();
+            if (!rs.next()) {
+                connection.rollback();
+                return false;
+            }
+            GratitudeEntry previous = mapResultSetToGratitudeEntry(rs);
+            Map<String, Integer> oldTerms = TermStatistics.countTerms(previous.getEntryText());
+            Map<String, Integer> newTerms = TermStatistics.countTerms(entryText);
+            rs.close();
+            rs = null;
+            pstmt.close();
             
+            pstmt = connection.prepareStatement(sql);
+            bindEntryText(pstmt, entryText, 1, 4);
+            if (moodRating != null) {
+                pstmt.setInt(2, moodRating);
+            } else {
+                pstmt.setNull(2, Types.INTEGER);
+            }
+            pstmt.setString(3, tags);
+            pstmt.setLong(7, entryId);
             pstmt.executeUpdate();
+            
+            LocalDate createdDate = previous.getCreatedDate();
+            updateTermCounts(createdDate, oldTerms, -1);
+            updateTermCounts(createdDate, newTerms, 1);
+            connection.commit();
+            
+            calendarIndex.changeMood(createdDate, previous.getMoodRating(), moodRating);
+            similarityIndex.add(entryId, entryText);
+            termStatistics.apply(createdDate, oldTerms, -1);
+            termStatistics.apply(createdDate, newTerms, 1);
+            
+            GratitudeEntry updated = new GratitudeEntry(entryText, moodRating);
+            updated.setId(entryId);
+            updated.setUuid(previous.getUuid());
+            updated.setCreatedDate(createdDate);
+            updated.setCreatedDateTime(previous.getCreatedDateTime());
+            updated.setTags(tags);
+            changeEvents.publish(ChangeEvent.entryUpdated(previous, updated));
+            System.out.println("✏️ Updated gratitude entry with ID: " + entryId);
+            return true;
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+    
+    /**
+     * Add (sign 1) or subtract (sign -1) an entry's terms in term_counts
+     */
+    private void updateTermCounts(LocalDate date, Map<String, Integer> terms, int sign) throws SQLException {
+        if (terms.isEmpty()) return;
+        
+        String upsertSql = "INSERT INTO term_counts (term, month, count) VALUES (?, ?, ?) " +
+                           "ON CONFLICT (term, month) DO UPDATE SET count = count + excluded.count";
+        String month = YearMonth.from(date).toString();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(upsertSql)) {
+            for (Map.Entry<String, Integer> term : terms.entrySet()) {
+                pstmt.setString(1, term.getKey());
+                pstmt.setString(2, month);
+                pstmt.setInt(3, sign * term.getValue());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        
+        if (sign < 0) {
+            // Drop only this entry's terms that reached zero, each by its primary key
+            try (PreparedStatement pstmt = connection.prepareStatement(
+                    "DELETE FROM term_counts WHERE term = ? AND month = ? AND count <= 0")) {
+                for (String term : terms.keySet()) {
+                    pstmt.setString(1, term);
+                    pstmt.setString(2, month);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+        }
+    }
+    
+    /**
+     * Save a quote to history for tracking what quotes were shown
+     */
+    public synchronized void saveQuoteToHistory(String quoteText, String author, String apiSource) {
+        try {
+            boolean autoCommit = connection.getAutoCommit();
+            try {
+                // Quote and showing together, so retention can't remove the quote in between
+                connection.setAutoCommit(false);
+                insertQuoteShowing(quoteText, author, apiSource, LocalDate.now().toString(), LocalDateTime.now().toString());
+                connection.commit();
+                
+                Quote quote = new Quote(quoteText, author);
+                quote.setSource(apiSource);
+                changeEvents.publish(ChangeEvent.quoteShown(quote));
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
             System.out.println("📝 Quote saved to history: " + author);
         } catch (SQLException e) {
             System.err.println("❌ Failed to save quote to history: " + e.getMessage());
-        } finally {
-            if (pstmt != null) {
-                try {
-                    pstmt.close();
-                } catch (SQLException e) {
-                    System.err.println("Error closing PreparedStatement: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Store the quote once (deduplicated by content hash) and record a showing that references it
+     */
+    private void insertQuoteShowing(String quoteText, String author, String apiSource,
+                                    String dateShown, String shownDateTime) throws SQLException {
+        String hash = quoteContentHash(quoteText, author);
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "INSERT OR IGNORE INTO quotes (content_hash, quote_text, author, api_source) VALUES (?, ?, ?, ?)")) {
+            pstmt.setString(1, hash);
+            pstmt.setString(2, quoteText);
+            pstmt.setString(3, author);
+            pstmt.setString(4, apiSource);
+            pstmt.executeUpdate();
+        }
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "INSERT INTO quote_showings (quote_id, date_shown, shown_datetime) " +
+                "SELECT id, ?, ? FROM quotes WHERE content_hash = ?")) {
+            pstmt.setString(1, dateShown);
+            pstmt.setString(2, shownDateTime);
+            pstmt.setString(3, hash);
+            if (pstmt.executeUpdate() != 1) {
+                throw new SQLException("Quote disappeared before its showing was recorded");
+            }
+        }
+    }
+    
+    /**
+     * Hash of the quote with case and whitespace normalized, so trivially different copies collapse
+     */
+    static String quoteContentHash(String quoteText, String author) {
+        String normalized = normalizeQuotePart(quoteText) + "\u0000" + normalizeQuotePart(author);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+            // 128 bits is plenty for a personal quote collection
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    private static String normalizeQuotePart(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Get the quotes shown on a specific date, most recent first
+     */
+    public List<Quote> getQuotesShownOn(LocalDate date) throws SQLException {
+        String sql = "SELECT q.quote_text, q.author, q.api_source FROM quote_showings s " +
+                     "JOIN quotes q ON q.id = s.quote_id WHERE s.date_shown = ? ORDER BY s.shown_datetime DESC";
+        List<Quote> quotes = new ArrayList<>();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setString(1, date.toString());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    quotes.add(mapResultSetToQuote(rs));
+                }
+            }
+        }
+        
+        return quotes;
+    }
+    
+    /**
+     * Get the most recently shown distinct quotes
+     */
+    public List<Quote> getRecentlyShownQuotes(int limit) throws SQLException {
+        // Only a bounded window of the newest showings is read, via idx_quote_showings_recent
+        String sql = "SELECT q.quote_text, q.author, q.api_source FROM quotes q JOIN (" +
+                     "SELECT quote_id, MAX(shown_datetime) AS last_shown FROM (" +
+                     "SELECT quote_id, shown_datetime FROM quote_showings ORDER BY shown_datetime DESC LIMIT ?" +
+                     ") GROUP BY quote_id) r ON r.quote_id = q.id ORDER BY r.last_shown DESC LIMIT ?";
+        List<Quote> quotes = new ArrayList<>();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, limit * 20);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    quotes.add(mapResultSetToQuote(rs));
                 }
             }
         }
+        
+        return quotes;
+    }
+    
+    /**
+     * Check whether a quote has been shown on or after the given date
+     */
+    public boolean wasQuoteShownSince(Quote quote, LocalDate since) throws SQLException {
+        String sql = "SELECT 1 FROM quote_showings s JOIN quotes q ON q.id = s.quote_id " +
+                     "WHERE q.content_hash = ? AND s.shown_datetime >= ? LIMIT 1";
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setString(1, quoteContentHash(quote.getText(), quote.getAuthor()));
+            pstmt.setString(2, since.toString());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+    
+    /**
+     * Apply the retention policy to quote history: drop showings older than retentionDays,
+     * collapse repeated showings of the same quote on one day into one, and remove quotes
+     * no longer referenced. Returns the number of rows removed.
+     */
+    public synchronized int compactQuoteHistory(int retentionDays) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        int removed = 0;
+        
+        try {
+            connection.setAutoCommit(false);
+            
+            try (PreparedStatement pstmt = connection.prepareStatement(
+                    "DELETE FROM quote_showings WHERE date_shown < ?")) {
+                pstmt.setString(1, LocalDate.now().minusDays(retentionDays).toString());
+                removed += pstmt.executeUpdate();
+            }
+            
+            try (Statement stmt = connection.createStatement()) {
+                removed += stmt.executeUpdate(
+                    "DELETE FROM quote_showings WHERE id NOT IN " +
+                    "(SELECT MAX(id) FROM quote_showings GROUP BY quote_id, date_shown)");
+                removed += stmt.executeUpdate(
+                    "DELETE FROM quotes WHERE NOT EXISTS " +
+                    "(SELECT 1 FROM quote_showings s WHERE s.quote_id = quotes.id)");
+            }
+            
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        
+        if (removed > 0) {
+            System.out.println("🧹 Quote history compacted, removed " + removed + " rows");
+        }
+        return removed;
+    }
+    
+    /**
+     * Run {@link #compactQuoteHistory(int)} periodically on a background thread,
+     * replacing the schedule of any earlier call
+     */
+    public synchronized void startQuoteHistoryRetention(int retentionDays, long intervalHours) {
+        if (maintenanceScheduler == null) {
+            maintenanceScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "db-maintenance");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+        }
+        if (quoteRetentionTask != null) {
+            quoteRetentionTask.cancel(false);
+        }
+        
+        quoteRetentionTask = maintenanceScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                compactQuoteHistory(retentionDays);
+            } catch (SQLException e) {
+                System.err.println("❌ Quote history compaction failed: " + e.getMessage());
+            }
+        }, 5, intervalHours * 60, TimeUnit.MINUTES);
+    }
+    
+    private Quote mapResultSetToQuote(ResultSet rs) throws SQLException {
+        Quote quote = new Quote(rs.getString("quote_text"), rs.getString("author"));
+        quote.setSource(rs.getString("api_source"));
+        return quote;
+    }
+    
+    /**
+     * Get all gratitude entries for a specific date
+     */
+    public List<GratitudeEntry> getEntriesForDate(LocalDate date) throws SQLException {
+        String sql = "SELECT " + LIST_COLUMNS + " FROM gratitude_entries WHERE created_date = ? ORDER BY created_datetime DESC";
+        List<GratitudeEntry> entries = new ArrayList<>();
+        
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        
+        try {
+            pstmt = connection.prepareStatement(sql);
+            pstmt.setString(1, date.toString());
+            
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                entries.add(mapListRow(rs));
+            }
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+        }
+        
+        return entries;
+    }
+    
+    /**
+     * Get entries written on the same month and day in earlier years, newest first.
+     * Leap-day entries are included on February 28 in non-leap years.
+     */
+    public List<GratitudeEntry> getEntriesOnThisDay(LocalDate date, int limit) throws SQLException {
+        String monthDay = date.toString().substring(5);
+        String before = date.withDayOfYear(1).atStartOfDay().toString();
+        
+        List<GratitudeEntry> entries = getEntriesForMonthDay(monthDay, before, limit);
+        if (monthDay.equals("02-28") && !date.isLeapYear()) {
+            entries.addAll(getEntriesForMonthDay("02-29", before, limit));
+            entries.sort(Comparator.comparing(GratitudeEntry::getCreatedDateTime).reversed());
+            if (entries.size() > limit) entries.subList(limit, entries.size()).clear();
+        }
+        return entries;
     }
     
     /**
-     * Get all gratitude entries for a specific date
+     * Newest entries on one month-day written before a point in time.
+     * A range scan backwards over idx_entries_month_day_time that stops after limit rows.
      */
-    public List<GratitudeEntry> getEntriesForDate(LocalDate date) throws SQLException {
-        String sql = "SELECT * FROM gratitude_entries WHERE created_date = ? ORDER BY created_datetime DESC";
+    private List<GratitudeEntry> getEntriesForMonthDay(String monthDay, String before, int limit) throws SQLException {
+        String sql = "SELECT " + LIST_COLUMNS + " FROM gratitude_entries WHERE month_day = ? AND created_datetime < ? " +
+                     "ORDER BY created_datetime DESC LIMIT ?";
         List<GratitudeEntry> entries = new ArrayList<>();
         
         PreparedStatement pstmt = null;
@@ -177,11 +1128,13 @@ public class DatabaseService {
         
         try {
             pstmt = connection.prepareStatement(sql);
-            pstmt.setString(1, date.toString());
+            pstmt.setString(1, monthDay);
+            pstmt.setString(2, before);
+            pstmt.setInt(3, limit);
             
             rs = pstmt.executeQuery();
             while (rs.next()) {
-                entries.add(mapResultSetToGratitudeEntry(rs));
+                entries.add(mapListRow(rs));
             }
         } finally {
             if (rs != null) rs.close();
@@ -195,7 +1148,7 @@ public class DatabaseService {
      * Get recent gratitude entries (last N entries)
      */
     public List<GratitudeEntry> getRecentEntries(int limit) throws SQLException {
-        String sql = "SELECT * FROM gratitude_entries ORDER BY created_datetime DESC LIMIT ?";
+        String sql = "SELECT " + LIST_COLUMNS + " FROM gratitude_entries ORDER BY created_datetime DESC LIMIT ?";
         List<GratitudeEntry> entries = new ArrayList<>();
         
         PreparedStatement pstmt = null;
@@ -207,7 +1160,7 @@ public class DatabaseService {
             
             rs = pstmt.executeQuery();
             while (rs.next()) {
-                entries.add(mapResultSetToGratitudeEntry(rs));
+                entries.add(mapListRow(rs));
             }
         } finally {
             if (rs != null) rs.close();
@@ -267,10 +1220,42 @@ public class DatabaseService {
     }
     
     /**
-     * Search gratitude entries by text content
+     * Tagged entries with only id, created date and tags filled in (no text is read)
+     */
+    public List<GratitudeEntry> getEntryTags() throws SQLException {
+        String sql = "SELECT id, created_date, tags FROM gratitude_entries WHERE tags IS NOT NULL AND tags <> ''";
+        List<GratitudeEntry> entries = new ArrayList<>();
+        
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                GratitudeEntry entry = new GratitudeEntry();
+                entry.setId(rs.getLong("id"));
+                entry.setCreatedDate(LocalDate.parse(rs.getString("created_date")));
+                entry.setTags(rs.getString("tags"));
+                entries.add(entry);
+            }
+        }
+        
+        return entries;
+    }
+    
+    /**
+     * Search gratitude entries by text content.
+     *
+     * Matches like SQL LIKE '%term%' (so case-insensitive for ASCII letters only).
+     * Plain entries, and compressed entries whose stored preview matches, are found in
+     * SQL. Any other compressed entry has to be read and decompressed to be checked, so
+     * a search costs one inflate per such entry; entries under the compression threshold
+     * cost nothing extra.
      */
     public List<GratitudeEntry> searchEntries(String searchTerm) throws SQLException {
-        String sql = "SELECT * FROM gratitude_entries WHERE entry_text LIKE ? ORDER BY created_datetime DESC";
+        String sql = "SELECT " + LIST_COLUMNS + ", " +
+                     "CASE WHEN entry_text LIKE ?1 OR entry_preview LIKE ?1 THEN NULL ELSE entry_blob END AS unmatched_blob, " +
+                     "dictionary_id FROM gratitude_entries " +
+                     "WHERE entry_text LIKE ?1 OR entry_preview LIKE ?1 OR entry_blob IS NOT NULL " +
+                     "ORDER BY created_datetime DESC";
+        Pattern pattern = likePattern(searchTerm);
         List<GratitudeEntry> entries = new ArrayList<>();
         
         PreparedStatement pstmt = null;
@@ -282,7 +1267,18 @@ public class DatabaseService {
             
             rs = pstmt.executeQuery();
             while (rs.next()) {
-                entries.add(mapResultSetToGratitudeEntry(rs));
+                byte[] unmatchedBlob = rs.getBytes("unmatched_blob");
+                if (unmatchedBlob == null) {
+                    entries.add(mapListRow(rs));
+                    continue;
+                }
+                
+                String entryText = entryCompressor.decompress(unmatchedBlob, rs.getInt("dictionary_id"));
+                if (pattern.matcher(entryText).find()) {
+                    GratitudeEntry entry = mapListRow(rs);
+                    entry.setEntryText(entryText);
+                    entries.add(entry);
+                }
             }
         } finally {
             if (rs != null) rs.close();
@@ -292,37 +1288,680 @@ public class DatabaseService {
         return entries;
     }
     
+    /**
+     * The Java equivalent of LIKE '%term%': % and _ are wildcards and only ASCII letters
+     * ignore case, as in SQLite's built-in LIKE
+     */
+    private static Pattern likePattern(String term) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (c == '%' || c == '_') {
+                if (literal.length() > 0) regex.append(Pattern.quote(literal.toString()));
+                literal.setLength(0);
+                regex.append(c == '%' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) regex.append(Pattern.quote(literal.toString()));
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    }
+    
     /**
      * Delete a gratitude entry by ID
      */
-    public boolean deleteEntry(long entryId) throws SQLException {
+    public synchronized boolean deleteEntry(long entryId) throws SQLException {
+        String selectSql = "SELECT * FROM gratitude_entries WHERE id = ?";
         String sql = "DELETE FROM gratitude_entries WHERE id = ?";
         
         PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        boolean autoCommit = connection.getAutoCommit();
         
         try {
+            connection.setAutoCommit(false);
+            
+            // Remember what is being deleted so the indexes can be updated
+            pstmt = connection.prepareStatement(selectSql);
+            pstmt.setLong(1, entryId);
+            rs = pstmt.executeQuery();
+            if (!rs.next()) {
+                connection.rollback();
+                return false;
+            }
+            GratitudeEntry entry = mapResultSetToGratitudeEntry(rs);
+            Map<String, Integer> terms = TermStatistics.countTerms(entry.getEntryText());
+            rs.close();
+            rs = null;
+            pstmt.close();
+            
             pstmt = connection.prepareStatement(sql);
             pstmt.setLong(1, entryId);
             int affectedRows = pstmt.executeUpdate();
             
             if (affectedRows > 0) {
+                updateTermCounts(entry.getCreatedDate(), terms, -1);
+                connection.commit();
+                
+                calendarIndex.removeEntry(entry.getCreatedDate(), entry.getMoodRating());
+                similarityIndex.remove(entryId);
+                termStatistics.apply(entry.getCreatedDate(), terms, -1);
+                changeEvents.publish(ChangeEvent.entryDeleted(entry));
                 System.out.println("🗑️ Deleted gratitude entry with ID: " + entryId);
                 return true;
             }
+            
+            connection.rollback();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
         } finally {
+            if (rs != null) rs.close();
             if (pstmt != null) pstmt.close();
+            connection.setAutoCommit(autoCommit);
         }
         
         return false;
     }
     
+    /**
+     * This database's identity in sync bundles
+     */
+    public String getDeviceId() {
+        return deviceId;
+    }
+    
+    /**
+     * Highest change sequence number known from each device
+     */
+    public synchronized Map<String, Long> getSyncVersions() throws SQLException {
+        return readVersions("SELECT device_id, seq FROM sync_versions", null);
+    }
+    
+    /**
+     * Give this database a new device id, e.g. after copying the file to another machine.
+     * Changes already logged keep the id they were made under.
+     */
+    public synchronized String assignNewDeviceId() throws SQLException {
+        String newDeviceId = UUID.randomUUID().toString();
+        boolean autoCommit = connection.getAutoCommit();
+        
+        try {
+            connection.setAutoCommit(false);
+            writeSyncState("device_id", newDeviceId);
+            try (PreparedStatement pstmt = connection.prepareStatement(
+                    "INSERT INTO sync_versions (device_id, seq) VALUES (?, 0)")) {
+                pstmt.setString(1, newDeviceId);
+                pstmt.executeUpdate();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        
+        deviceId = newDeviceId;
+        return newDeviceId;
+    }
+    
+    /**
+     * Collect the changes a peer has not seen yet, going by the versions it reported in the last
+     * bundle we applied from it. With no peer (or an unknown one) every entry is exported.
+     * Only the latest change per entry is kept, so the size follows the number of changed entries.
+     */
+    public synchronized SyncBundle exportChanges(String peerDeviceId) throws SQLException {
+        Map<String, Long> versions = getSyncVersions();
+        Map<String, Long> peerVersions = peerDeviceId == null ? new HashMap<>()
+                : readVersions("SELECT device_id, seq FROM sync_peers WHERE peer_id = ?", peerDeviceId);
+        
+        SyncBundle bundle = new SyncBundle();
+        bundle.setDeviceId(deviceId);
+        bundle.setCreatedAt(Instant.now().toString());
+        bundle.setVersions(versions);
+        
+        // Served by the (device_id, device_seq) unique index
+        String sql = "SELECT c.entry_uuid, c.device_id, c.device_seq, c.op, c.changed_at, e.* " +
+                     "FROM changes c LEFT JOIN gratitude_entries e ON e.uuid = c.entry_uuid " +
+                     "WHERE c.device_id = ? AND c.device_seq > ? ORDER BY c.device_seq";
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            for (Map.Entry<String, Long> version : versions.entrySet()) {
+                long known = peerVersions.getOrDefault(version.getKey(), 0L);
+                if (version.getValue() <= known) continue;
+                
+                pstmt.setString(1, version.getKey());
+                pstmt.setLong(2, known);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        SyncChange change = new SyncChange();
+                        change.setEntryUuid(rs.getString("entry_uuid"));
+                        change.setDeviceId(rs.getString("device_id"));
+                        change.setDeviceSeq(rs.getLong("device_seq"));
+                        change.setChangedAt(rs.getString("changed_at"));
+                        change.setDeleted("D".equals(rs.getString("op")) || rs.getString("created_date") == null);
+                        
+                        if (!change.isDeleted()) {
+                            GratitudeEntry entry = mapResultSetToGratitudeEntry(rs);
+                            change.setEntryText(entry.getEntryText());
+                            change.setCreatedDate(entry.getCreatedDate().toString());
+                            change.setCreatedDateTime(entry.getCreatedDateTime().toString());
+                            change.setMoodRating(entry.getMoodRating());
+                            change.setTags(entry.getTags());
+                        }
+                        bundle.getChanges().add(change);
+                    }
+                }
+            }
+        }
+        
+        return bundle;
+    }
+    
+    /**
+     * Apply a bundle from another device in one transaction. A change is applied only if it wins
+     * over this database's latest change to the same entry (later changed_at, then larger device id,
+     * then larger sequence number), so every device converges on the same state whatever the order
+     * bundles arrive in. Returns the number of changes applied.
+     *
+     * A bundle carrying this database's own device id means the file was copied: both copies
+     * would keep numbering changes under one id and overwrite each other's change-log rows,
+     * so it is rejected until one copy is given a new id (SyncTool new-device).
+     */
+    public synchronized int applyChanges(SyncBundle bundle) throws SQLException {
+        if (bundle.getFormatVersion() != SyncBundle.FORMAT_VERSION) {
+            throw new SQLException("Unsupported sync bundle format " + bundle.getFormatVersion());
+        }
+        if (deviceId.equals(bundle.getDeviceId())) {
+            throw new SQLException("Bundle has this database's own device id " + deviceId +
+                    "; the database file was probably copied. Run 'new-device' on one of the copies, then export again.");
+        }
+        
+        List<Runnable> afterCommit = new ArrayList<>();
+        int applied = 0;
+        boolean autoCommit = connection.getAutoCommit();
+        
+        try {
+            connection.setAutoCommit(false);
+            // Remote changes are logged under the device that made them, not by the triggers
+            setChangeLogSuppressed(true);
+            Map<String, Long> known = getSyncVersions();
+            
+            for (SyncChange change : bundle.getChanges()) {
+                if (change.getDeviceSeq() <= known.getOrDefault(change.getDeviceId(), 0L)) continue;
+                if (!winsOverLocal(change)) continue;
+                
+                applyChange(change, afterCommit);
+                try (PreparedStatement pstmt = connection.prepareStatement(
+                        "INSERT OR REPLACE INTO changes (entry_uuid, device_id, device_seq, op, changed_at) VALUES (?, ?, ?, ?, ?)")) {
+                    pstmt.setString(1, change.getEntryUuid());
+                    pstmt.setString(2, change.getDeviceId());
+                    pstmt.setLong(3, change.getDeviceSeq());
+                    pstmt.setString(4, change.isDeleted() ? "D" : "U");
+                    pstmt.setString(5, change.getChangedAt());
+                    pstmt.executeUpdate();
+                }
+                applied++;
+            }
+            
+            try (PreparedStatement versions = connection.prepareStatement(
+                     "INSERT INTO sync_versions (device_id, seq) VALUES (?, ?) " +
+                     "ON CONFLICT (device_id) DO UPDATE SET seq = max(seq, excluded.seq)");
+                 PreparedStatement peers = connection.prepareStatement(
+                     "INSERT OR REPLACE INTO sync_peers (peer_id, device_id, seq) VALUES (?, ?, ?)")) {
+                for (Map.Entry<String, Long> version : bundle.getVersions().entrySet()) {
+                    versions.setString(1, version.getKey());
+                    versions.setLong(2, version.getValue());
+                    versions.addBatch();
+                    
+                    peers.setString(1, bundle.getDeviceId());
+                    peers.setString(2, version.getKey());
+                    peers.setLong(3, version.getValue());
+                    peers.addBatch();
+                }
+                versions.executeBatch();
+                peers.executeBatch();
+            }
+            
+            setChangeLogSuppressed(false);
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        
+        afterCommit.forEach(Runnable::run);
+        System.out.println("🔄 Applied " + applied + " of " + bundle.getChanges().size() +
+                " changes from device " + bundle.getDeviceId());
+        return applied;
+    }
+    
+    private boolean winsOverLocal(SyncChange change) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "SELECT device_id, device_seq, changed_at FROM changes WHERE entry_uuid = ?")) {
+            pstmt.setString(1, change.getEntryUuid());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) return true;
+                return SyncChange.compareVersions(change.getChangedAt(), change.getDeviceId(), change.getDeviceSeq(),
+                        rs.getString("changed_at"), rs.getString("device_id"), rs.getLong("device_seq")) > 0;
+            }
+        }
+    }
+    
+    /**
+     * Insert, update or delete the entry a winning change refers to, keeping term counts in the
+     * same transaction and queueing the in-memory index updates and events for after commit
+     */
+    private void applyChange(SyncChange change, List<Runnable> afterCommit) throws SQLException {
+        GratitudeEntry previous = null;
+        try (PreparedStatement pstmt = connection.prepareStatement("SELECT * FROM gratitude_entries WHERE uuid = ?")) {
+            pstmt.setString(1, change.getEntryUuid());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) previous = mapResultSetToGratitudeEntry(rs);
+            }
+        }
+        Map<String, Integer> oldTerms = previous != null ? TermStatistics.countTerms(previous.getEntryText()) : null;
+        
+        if (change.isDeleted()) {
+            if (previous == null) return;
+            try (PreparedStatement pstmt = connection.prepareStatement("DELETE FROM gratitude_entries WHERE id = ?")) {
+                pstmt.setLong(1, previous.getId());
+                pstmt.executeUpdate();
+            }
+            updateTermCounts(previous.getCreatedDate(), oldTerms, -1);
+            
+            GratitudeEntry deleted = previous;
+            afterCommit.add(() -> {
+                calendarIndex.removeEntry(deleted.getCreatedDate(), deleted.getMoodRating());
+                similarityIndex.remove(deleted.getId());
+                termStatistics.apply(deleted.getCreatedDate(), oldTerms, -1);
+                changeEvents.publish(ChangeEvent.entryDeleted(deleted));
+            });
+            return;
+        }
+        
+        GratitudeEntry entry = new GratitudeEntry(change.getEntryText(), change.getMoodRating());
+        entry.setUuid(change.getEntryUuid());
+        entry.setCreatedDate(LocalDate.parse(change.getCreatedDate()));
+        entry.setCreatedDateTime(LocalDateTime.parse(change.getCreatedDateTime()));
+        entry.setTags(change.getTags());
+        Map<String, Integer> newTerms = TermStatistics.countTerms(entry.getEntryText());
+        
+        if (previous != null) {
+            try (PreparedStatement pstmt = connection.prepareStatement(
+                    "UPDATE gratitude_entries SET entry_text = ?, mood_rating = ?, tags = ?, " +
+                    "entry_preview = ?, entry_blob = ?, dictionary_id = ? WHERE id = ?")) {
+                bindEntryText(pstmt, entry.getEntryText(), 1, 4);
+                if (entry.getMoodRating() != null) {
+                    pstmt.setInt(2, entry.getMoodRating());
+                } else {
+                    pstmt.setNull(2, Types.INTEGER);
+                }
+                pstmt.setString(3, entry.getTags());
+                pstmt.setLong(7, previous.getId());
+                pstmt.executeUpdate();
+            }
+            updateTermCounts(previous.getCreatedDate(), oldTerms, -1);
+            updateTermCounts(previous.getCreatedDate(), newTerms, 1);
+            
+            entry.setId(previous.getId());
+            entry.setCreatedDate(previous.getCreatedDate());
+            GratitudeEntry old = previous;
+            afterCommit.add(() -> {
+                calendarIndex.changeMood(old.getCreatedDate(), old.getMoodRating(), entry.getMoodRating());
+                similarityIndex.add(entry.getId(), entry.getEntryText());
+                termStatistics.apply(old.getCreatedDate(), oldTerms, -1);
+                termStatistics.apply(old.getCreatedDate(), newTerms, 1);
+                changeEvents.publish(ChangeEvent.entryUpdated(old, entry));
+            });
+            return;
+        }
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "INSERT INTO gratitude_entries (entry_text, created_date, created_datetime, mood_rating, tags, " +
+                "entry_preview, entry_blob, dictionary_id, uuid) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            pstmt.setString(2, change.getCreatedDate());
+            pstmt.setString(3, change.getCreatedDateTime());
+            if (entry.getMoodRating() != null) {
+                pstmt.setInt(4, entry.getMoodRating());
+            } else {
+                pstmt.setNull(4, Types.INTEGER);
+            }
+            pstmt.setString(5, entry.getTags());
+            bindEntryText(pstmt, entry.getEntryText(), 1, 6);
+            pstmt.setString(9, entry.getUuid());
+            pstmt.executeUpdate();
+        }
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+            rs.next();
+            entry.setId(rs.getLong(1));
+        }
+        updateTermCounts(entry.getCreatedDate(), newTerms, 1);
+        
+        afterCommit.add(() -> {
+            calendarIndex.recordEntry(entry.getCreatedDate(), entry.getMoodRating());
+            similarityIndex.add(entry.getId(), entry.getEntryText());
+            termStatistics.apply(entry.getCreatedDate(), newTerms, 1);
+            changeEvents.publish(ChangeEvent.entryInserted(entry));
+        });
+    }
+    
+    private Map<String, Long> readVersions(String sql, String parameter) throws SQLException {
+        Map<String, Long> versions = new HashMap<>();
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            if (parameter != null) pstmt.setString(1, parameter);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    versions.put(rs.getString("device_id"), rs.getLong("seq"));
+                }
+            }
+        }
+        return versions;
+    }
+    
+    /**
+     * Regenerate the calendar heatmap / streak index from gratitude_entries
+     */
+    public void rebuildCalendarIndex() throws SQLException {
+        String sql = "SELECT created_date, COUNT(*) as entry_count, " +
+                     "COALESCE(SUM(mood_rating), 0) as mood_sum, COUNT(mood_rating) as mood_count " +
+                     "FROM gratitude_entries GROUP BY created_date";
+        
+        Statement stmt = null;
+        ResultSet rs = null;
+        
+        try {
+            stmt = connection.createStatement();
+            rs = stmt.executeQuery(sql);
+            
+            synchronized (calendarIndex) {
+                calendarIndex.clear();
+                while (rs.next()) {
+                    calendarIndex.addDay(LocalDate.parse(rs.getString("created_date")),
+                            rs.getInt("entry_count"), rs.getInt("mood_sum"), rs.getInt("mood_count"));
+                }
+            }
+            
+            System.out.println("🗓️ Calendar index rebuilt: " + calendarIndex.getActiveDayCount() + " active days");
+        } finally {
+            if (rs != null) rs.close();
+            if (stmt != null) stmt.close();
+        }
+    }
+    
+    /**
+     * Load entry signatures from the sidecar file, or rebuild them if it is stale
+     */
+    private void loadSimilarityIndex() throws SQLException {
+        long foreignChanges = foreignEntryChanges();
+        long checksum = entryTableChecksum();
+        if (similarityIndex.load(similarityIndexFile(), checksum)) {
+            similarityIndexForeignChanges = foreignChanges;
+            System.out.println("🔍 Similarity index loaded: " + similarityIndex.size() + " entries");
+            return;
+        }
+        
+        rebuildSimilarityIndex();
+        try {
+            similarityIndex.save(similarityIndexFile(), checksum);
+        } catch (IOException e) {
+            System.err.println("❌ Failed to save similarity index: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Recompute every entry signature, in parallel batches
+     */
+    public void rebuildSimilarityIndex() throws SQLException {
+        String sql = "SELECT * FROM gratitude_entries";
+        int batchSize = 10000;
+        List<GratitudeEntry> batch = new ArrayList<>(batchSize);
+        
+        similarityIndex.clear();
+        similarityIndexForeignChanges = foreignEntryChanges();
+        
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                batch.add(mapResultSetToGratitudeEntry(rs));
+                if (batch.size() == batchSize) {
+                    similarityIndex.addAll(batch);
+                    batch.clear();
+                }
+            }
+        }
+        similarityIndex.addAll(batch);
+        
+        System.out.println("🔍 Similarity index rebuilt: " + similarityIndex.size() + " entries");
+    }
+    
+    /**
+     * Load word / phrase counts from term_counts, backfilling them on first run
+     */
+    private void loadTermStatistics() throws SQLException {
+        termStatistics.clear();
+        
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT term, month, count FROM term_counts")) {
+            while (rs.next()) {
+                termStatistics.load(rs.getString("term"), YearMonth.parse(rs.getString("month")), rs.getInt("count"));
+            }
+        }
+        
+        if (termStatistics.isEmpty() && getTotalEntryCount() > 0) {
+            rebuildTermStatistics();
+        } else {
+            System.out.println("📈 Term statistics loaded");
+        }
+    }
+    
+    /**
+     * Re-tokenize every entry (fork-join, in batches) and rewrite term_counts
+     */
+    public synchronized void rebuildTermStatistics() throws SQLException {
+        int batchSize = 10000;
+        List<GratitudeEntry> batch = new ArrayList<>(batchSize);
+        
+        termStatistics.clear();
+        
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM gratitude_entries")) {
+            while (rs.next()) {
+                batch.add(mapResultSetToGratitudeEntry(rs));
+                if (batch.size() == batchSize) {
+                    termStatistics.backfill(batch);
+                    batch.clear();
+                }
+            }
+        }
+        termStatistics.backfill(batch);
+        
+        boolean autoCommit = connection.getAutoCommit();
+        try {
+            connection.setAutoCommit(false);
+            
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("DELETE FROM term_counts");
+            }
+            try (PreparedStatement pstmt = connection.prepareStatement(
+                    "INSERT INTO term_counts (term, month, count) VALUES (?, ?, ?)")) {
+                SQLException[] failure = new SQLException[1];
+                termStatistics.forEachCount((term, month, count) -> {
+                    if (failure[0] != null) return;
+                    try {
+                        pstmt.setString(1, term);
+                        pstmt.setString(2, month.toString());
+                        pstmt.setInt(3, count);
+                        pstmt.addBatch();
+                    } catch (SQLException e) {
+                        failure[0] = e;
+                    }
+                });
+                if (failure[0] != null) throw failure[0];
+                pstmt.executeBatch();
+            }
+            
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        
+        System.out.println("📈 Term statistics rebuilt");
+    }
+    
+    /**
+     * Word and phrase frequencies, overall and per month, kept in sync on save and delete
+     */
+    public TermStatistics getTermStatistics() {
+        return termStatistics;
+    }
+    
+    /**
+     * Cheap fingerprint of the entry table, used to tell whether sidecar indexes are current:
+     * which rows exist, plus the version that moves on every change to entry text, from any
+     * connection (so a restored older copy with the same ids differs too)
+     */
+    private long entryTableChecksum() throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*), COALESCE(MAX(id), 0), COALESCE(SUM(id), 0), " +
+                     "(SELECT version FROM entry_table_version) FROM gratitude_entries")) {
+            rs.next();
+            return ((rs.getLong(1) * 31 + rs.getLong(2)) * 31 + rs.getLong(3)) * 31 + rs.getLong(4);
+        }
+    }
+    
+    private Path similarityIndexFile() {
+        return Paths.get(databaseName + ".minhash");
+    }
+    
+    /**
+     * Near-duplicate lookup over entry signatures, kept in sync on save and delete
+     */
+    public SimilarityIndex getSimilarityIndex() {
+        return similarityIndex;
+    }
+    
+    /**
+     * Per-day entry counts, average mood and streaks, kept in sync on save and delete
+     */
+    public CalendarIndex getCalendarIndex() {
+        return calendarIndex;
+    }
+    
+    /**
+     * Committed inserts, updates, deletes and quote showings, delivered asynchronously in batches
+     */
+    public ChangeEventBus getChangeEvents() {
+        return changeEvents;
+    }
+    
+    /**
+     * Reads part of the data for {@link #snapshotAndSubscribe}
+     */
+    @FunctionalInterface
+    public interface SnapshotReader<T> {
+        T read() throws SQLException;
+    }
+    
+    /**
+     * Read a snapshot and subscribe to change events with no gap or overlap between them: the
+     * subscriber receives exactly the changes the snapshot doesn't include. Writers commit, update
+     * the in-memory indexes and publish while holding this service's lock, so none can run in
+     * between. Saves wait while the snapshot is read, so keep it short.
+     */
+    public synchronized <T> T snapshotAndSubscribe(SnapshotReader<T> reader, Consumer<List<ChangeEvent>> subscriber) throws SQLException {
+        T snapshot = reader.read();
+        changeEvents.subscribe(subscriber);
+        return snapshot;
+    }
+    
+    /**
+     * Statement timings, recent slow queries and their plans
+     */
+    public QueryProfiler getQueryProfiler() {
+        return queryProfiler;
+    }
+    
+    /**
+     * Log statements taking at least this many milliseconds; 0 logs every statement
+     */
+    public void setSlowQueryThresholdMillis(long thresholdMillis) {
+        queryProfiler.setThresholdMillis(thresholdMillis);
+    }
+    
     /**
      * Helper method to map ResultSet to GratitudeEntry object
      */
     private GratitudeEntry mapResultSetToGratitudeEntry(ResultSet rs) throws SQLException {
+        GratitudeEntry entry = mapEntryColumns(rs);
+        
+        byte[] entryBlob = rs.getBytes("entry_blob");
+        if (entryBlob != null) {
+            // Decompressed only if the full text is actually needed
+            int dictionaryId = rs.getInt("dictionary_id");
+            entry.setPreview(rs.getString("entry_preview"));
+            entry.setEntryTextLoader(() -> entryCompressor.decompress(entryBlob, dictionaryId));
+        } else {
+            entry.setEntryText(rs.getString("entry_text"));
+        }
+        
+        return entry;
+    }
+    
+    /**
+     * Map a row selected with LIST_COLUMNS. Compressed text is fetched and decompressed
+     * only when getEntryText() is called; list views use the stored preview.
+     */
+    private GratitudeEntry mapListRow(ResultSet rs) throws SQLException {
+        GratitudeEntry entry = mapEntryColumns(rs);
+        
+        if (rs.getBoolean("compressed")) {
+            long entryId = entry.getId();
+            String preview = rs.getString("entry_preview");
+            entry.setPreview(preview);
+            entry.setEntryTextLoader(() -> loadEntryText(entryId, preview));
+        } else {
+            entry.setEntryText(rs.getString("entry_text"));
+        }
+        
+        return entry;
+    }
+    
+    /**
+     * Read one entry's full text; falls back to the preview if the entry has been deleted since
+     */
+    private String loadEntryText(long entryId, String preview) {
+        String sql = "SELECT entry_text, entry_blob, dictionary_id FROM gratitude_entries WHERE id = ?";
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setLong(1, entryId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) return preview;
+                byte[] entryBlob = rs.getBytes("entry_blob");
+                return entryBlob != null
+                        ? entryCompressor.decompress(entryBlob, rs.getInt("dictionary_id"))
+                        : rs.getString("entry_text");
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to load entry text", e);
+        }
+    }
+    
+    /**
+     * Columns shared by full and list rows: everything but the text
+     */
+    private GratitudeEntry mapEntryColumns(ResultSet rs) throws SQLException {
         GratitudeEntry entry = new GratitudeEntry();
         entry.setId(rs.getLong("id"));
-        entry.setEntryText(rs.getString("entry_text"));
+        entry.setUuid(rs.getString("uuid"));
         entry.setCreatedDate(LocalDate.parse(rs.getString("created_date")));
         entry.setCreatedDateTime(LocalDateTime.parse(rs.getString("created_datetime")));
         
@@ -341,14 +1980,42 @@ public class DatabaseService {
      * Close the database connection
      */
     public void closeConnection() {
+        synchronized (this) {
+            if (maintenanceScheduler != null) {
+                maintenanceScheduler.shutdownNow();
+                maintenanceScheduler = null;
+                quoteRetentionTask = null;
+            }
+        }
+        changeEvents.close();
+        
         try {
             if (connection != null && !connection.isClosed()) {
+                // Persist signatures so the next start can skip re-hashing, unless another
+                // connection changed entries the index never saw (it is rebuilt next start)
+                if (foreignEntryChanges() == similarityIndexForeignChanges) {
+                    try {
+                        similarityIndex.save(similarityIndexFile(), entryTableChecksum());
+                    } catch (IOException e) {
+                        System.err.println("❌ Failed to save similarity index: " + e.getMessage());
+                    }
+                } else {
+                    System.out.println("🔍 Entries changed by another connection; similarity index not saved");
+                }
                 connection.close();
                 System.out.println("🔒 Database connection closed.");
             }
         } catch (SQLException e) {
             System.err.println("❌ Error closing database connection: " + e.getMessage());
         }
+        queryProfiler.close();
+    }
+    
+    /**
+     * Path of the database file this service is connected to
+     */
+    public String getDatabaseName() {
+        return databaseName;
     }
     
     /**
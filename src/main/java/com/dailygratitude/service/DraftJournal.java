@@ -0,0 +1,415 @@
+package com.dailygratitude.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Crash-safe journal of the unsaved draft, kept in a memory-mapped append-only log.
+ *
+ * Text changes are coalesced for a short debounce window and appended as a single
+ * edit (position, characters removed, text inserted). Each record carries a CRC so a
+ * torn write at the tail is simply ignored on replay. Writes into the mapping reach
+ * the OS page cache immediately, so a JVM crash loses at most one debounce window.
+ *
+ * When the log fills up it is compacted into a new generation file holding one
+ * snapshot record; the newest valid generation wins on startup.
+ *
+ * Every draft has a random id. The caller commits the id together with the saved
+ * entry, and a draft whose id has already been saved is dropped on startup, so a
+ * crash between the database commit and the clear record never restores a draft
+ * that is already in the journal database. Clearing starts a new draft id.
+ */
+public class DraftJournal {
+
+    private static final int MAGIC = 0x44524654; // "DRFT"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8; // payload length + CRC
+
+    private static final byte SNAPSHOT = 1;
+    private static final byte EDIT = 2;
+    private static final byte CLEAR = 3; // optionally followed by the next draft id
+    private static final byte DRAFT = 4; // id of the current draft
+
+    private static final int DEFAULT_CAPACITY = 64 * 1024;
+    private static final long DEBOUNCE_MILLIS = 500;
+
+    private final Path directory;
+    private final String baseName;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long generation;
+    private long draftId; // 0 until known
+
+    private String journaledText = "";
+    private volatile String pendingText = "";
+
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> pendingFlush;
+
+    /**
+     * Journal files are named baseName.1, baseName.2, ... inside directory
+     */
+    public DraftJournal(Path directory, String baseName) {
+        this.directory = directory;
+        this.baseName = baseName;
+    }
+
+    /**
+     * Open the journal and replay it. Returns the unsaved draft, or an empty string if
+     * there is none or its id is savedDraftId (it was committed before a crash).
+     */
+    public synchronized String open(long savedDraftId) throws IOException {
+        Files.createDirectories(directory);
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "draft-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Newest generation whose header is intact wins
+        List<Long> generations = listGenerations();
+        String recovered = null;
+        for (int i = generations.size() - 1; i >= 0 && recovered == null; i--) {
+            recovered = replay(generations.get(i));
+        }
+
+        if (recovered == null) {
+            createGeneration(generations.isEmpty() ? 1 : generations.get(generations.size() - 1) + 1, DEFAULT_CAPACITY);
+            recovered = "";
+        }
+
+        journaledText = recovered;
+        pendingText = recovered;
+        deleteOldGenerations();
+
+        if (draftId != 0 && draftId == savedDraftId) {
+            // Saved before the clear record was written. Even with no text left, the id
+            // must not be reused, or the next draft would be discarded as saved too.
+            if (!recovered.isEmpty()) {
+                System.out.println("📝 Discarded draft that was already saved");
+            }
+            clear();
+            recovered = "";
+        } else if (draftId == 0) {
+            // New journal, or one written before drafts had ids
+            startDraft(newDraftId());
+        }
+
+        if (!recovered.isEmpty()) {
+            System.out.println("📝 Restored unsaved draft (" + recovered.length() + " chars)");
+        }
+        return recovered;
+    }
+
+    /**
+     * Record the current draft text; it is written to the log after the debounce window.
+     * Cheap enough to call on every keystroke.
+     */
+    public void update(String text) {
+        pendingText = text;
+        synchronized (this) {
+            if (scheduler != null && (pendingFlush == null || pendingFlush.isDone())) {
+                pendingFlush = scheduler.schedule(this::flushQuietly, DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Id of the current draft; pass it to DatabaseService.saveGratitudeEntry so the save
+     * and the end of the draft are committed together
+     */
+    public synchronized long getDraftId() {
+        return draftId;
+    }
+
+    /**
+     * Write any pending change now
+     */
+    public synchronized void flush() throws IOException {
+        if (buffer == null) return;
+
+        String text = pendingText;
+        if (text.equals(journaledText)) return;
+
+        // Smallest single edit turning the journaled text into the pending text
+        int prefix = 0;
+        int maxPrefix = Math.min(text.length(), journaledText.length());
+        while (prefix < maxPrefix && text.charAt(prefix) == journaledText.charAt(prefix)) prefix++;
+        // Never split a surrogate pair, or the inserted text can't be encoded as UTF-8
+        if (prefix > 0 && Character.isHighSurrogate(text.charAt(prefix - 1))) prefix--;
+
+        int suffix = 0;
+        int maxSuffix = maxPrefix - prefix;
+        while (suffix < maxSuffix
+                && text.charAt(text.length() - 1 - suffix) == journaledText.charAt(journaledText.length() - 1 - suffix)) {
+            suffix++;
+        }
+        if (suffix > 0 && Character.isLowSurrogate(text.charAt(text.length() - suffix))) suffix--;
+
+        byte[] inserted = text.substring(prefix, text.length() - suffix).getBytes(StandardCharsets.UTF_8);
+        int deleted = journaledText.length() - prefix - suffix;
+
+        byte[] payload = new byte[1 + 8 + inserted.length];
+        ByteBuffer.wrap(payload).put(EDIT).putInt(prefix).putInt(deleted).put(inserted);
+
+        if (!append(payload)) {
+            compact(text);
+        }
+        journaledText = text;
+    }
+
+    /**
+     * Discard the draft once it has been committed to the database and start a new one
+     */
+    public synchronized void clear() throws IOException {
+        if (pendingFlush != null) {
+            pendingFlush.cancel(false);
+            pendingFlush = null;
+        }
+        pendingText = "";
+        if (buffer == null) {
+            journaledText = "";
+            return;
+        }
+
+        // Even an empty draft gets a new id, or the next one would look already saved
+        long nextDraftId = newDraftId();
+        byte[] payload = new byte[9];
+        ByteBuffer.wrap(payload).put(CLEAR).putLong(nextDraftId);
+        journaledText = "";
+        draftId = nextDraftId;
+        if (!append(payload)) {
+            compact("");
+        }
+        buffer.force();
+    }
+
+    /**
+     * Flush pending changes and stop the background writer
+     */
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        try {
+            flush();
+            if (buffer != null) buffer.force();
+            if (channel != null) channel.close();
+        } catch (IOException e) {
+            System.err.println("❌ Failed to close draft journal: " + e.getMessage());
+        }
+        buffer = null;
+        channel = null;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            System.err.println("❌ Failed to write draft journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Append one record. Returns false when the log has no room left.
+     */
+    private boolean append(byte[] payload) {
+        int position = buffer.position();
+        // Keep a zero length word after the record so replay knows where the log ends
+        if (position + RECORD_HEADER_SIZE + payload.length + 4 > buffer.capacity()) {
+            return false;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        // Payload first, length last: a record only becomes visible once complete
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.put(position + RECORD_HEADER_SIZE, payload);
+        buffer.putInt(position, payload.length);
+        buffer.position(position + RECORD_HEADER_SIZE + payload.length);
+        return true;
+    }
+
+    /**
+     * Record the id of the current draft
+     */
+    private void startDraft(long newDraftId) throws IOException {
+        draftId = newDraftId;
+        if (!append(draftRecord())) {
+            compact(journaledText);
+        }
+        buffer.force();
+    }
+
+    private byte[] draftRecord() {
+        byte[] payload = new byte[9];
+        ByteBuffer.wrap(payload).put(DRAFT).putLong(draftId);
+        return payload;
+    }
+
+    private static long newDraftId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return id;
+    }
+
+    /**
+     * Start a new generation holding the draft id and a single snapshot of the text
+     */
+    private void compact(String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        byte[] payload = new byte[1 + bytes.length];
+        payload[0] = SNAPSHOT;
+        System.arraycopy(bytes, 0, payload, 1, bytes.length);
+
+        int capacity = Math.max(DEFAULT_CAPACITY, 2 * (HEADER_SIZE + 2 * RECORD_HEADER_SIZE + 9 + payload.length));
+        createGeneration(generation + 1, capacity);
+        append(draftRecord());
+        append(payload);
+        buffer.force();
+
+        deleteOldGenerations();
+    }
+
+    private void createGeneration(long newGeneration, int capacity) throws IOException {
+        if (channel != null) channel.close();
+
+        Path file = directory.resolve(baseName + "." + newGeneration);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.position(HEADER_SIZE);
+        buffer.force();
+        generation = newGeneration;
+    }
+
+    /**
+     * Replay one generation and keep it open for appending. Returns null if its header is invalid.
+     */
+    private String replay(long candidate) throws IOException {
+        Path file = directory.resolve(baseName + "." + candidate);
+        FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = fileChannel.size();
+        if (size < HEADER_SIZE + 4 || size > Integer.MAX_VALUE) {
+            fileChannel.close();
+            return null;
+        }
+
+        MappedByteBuffer mapped = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+            fileChannel.close();
+            return null;
+        }
+
+        StringBuilder text = new StringBuilder();
+        long replayedDraftId = 0;
+        int position = HEADER_SIZE;
+        CRC32 crc = new CRC32();
+
+        while (position + RECORD_HEADER_SIZE <= size) {
+            int length = mapped.getInt(position);
+            if (length <= 0 || position + RECORD_HEADER_SIZE + length + 4 > size) break;
+
+            byte[] payload = new byte[length];
+            mapped.get(position + RECORD_HEADER_SIZE, payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != mapped.getInt(position + 4)) break; // torn tail
+
+            replayedDraftId = applyRecord(text, payload, replayedDraftId);
+            position += RECORD_HEADER_SIZE + length;
+        }
+
+        // Wipe anything after the last good record so new appends are not mixed with garbage
+        for (int i = position; i < Math.min(size, position + RECORD_HEADER_SIZE + 4); i++) {
+            mapped.put(i, (byte) 0);
+        }
+
+        if (channel != null) channel.close();
+        channel = fileChannel;
+        buffer = mapped;
+        buffer.position(position);
+        generation = candidate;
+        draftId = replayedDraftId;
+        return text.toString();
+    }
+
+    /**
+     * Apply one record to the text; returns the draft id in effect after it
+     */
+    private static long applyRecord(StringBuilder text, byte[] payload, long currentDraftId) {
+        ByteBuffer record = ByteBuffer.wrap(payload);
+        byte type = record.get();
+
+        if (type == SNAPSHOT) {
+            text.setLength(0);
+            text.append(new String(payload, 1, payload.length - 1, StandardCharsets.UTF_8));
+        } else if (type == EDIT) {
+            int position = record.getInt();
+            int deleted = record.getInt();
+            String inserted = new String(payload, record.position(), record.remaining(), StandardCharsets.UTF_8);
+            if (position + deleted <= text.length()) {
+                text.replace(position, position + deleted, inserted);
+            }
+        } else if (type == CLEAR) {
+            text.setLength(0);
+            return record.remaining() >= 8 ? record.getLong() : 0;
+        } else if (type == DRAFT) {
+            return record.getLong();
+        }
+        return currentDraftId;
+    }
+
+    private List<Long> listGenerations() throws IOException {
+        List<Long> generations = new ArrayList<>();
+        String prefix = baseName + ".";
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(p -> p.getFileName().toString())
+                 .filter(name -> name.startsWith(prefix))
+                 .forEach(name -> {
+                     try {
+                         generations.add(Long.parseLong(name.substring(prefix.length())));
+                     } catch (NumberFormatException e) {
+                         // Not one of ours
+                     }
+                 });
+        }
+        generations.sort(null);
+        return generations;
+    }
+
+    private void deleteOldGenerations() {
+        try {
+            for (long old : listGenerations()) {
+                if (old != generation) {
+                    Files.deleteIfExists(directory.resolve(baseName + "." + old));
+                }
+            }
+        } catch (IOException e) {
+            // Still mapped on some platforms; retried on the next compaction or startup
+        }
+    }
+}
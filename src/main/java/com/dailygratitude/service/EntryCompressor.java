@@ -0,0 +1,161 @@
+package com.dailygratitude.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflate compression of long entry text using a preset dictionary.
+ *
+ * Gratitude entries are short and repetitive ("I am grateful for my family..."),
+ * which plain deflate handles poorly because each entry starts with an empty
+ * window. A dictionary of frequent words and phrases from existing entries gives
+ * the compressor something to back-reference from the first byte.
+ * Dictionary 0 is built in; trained dictionaries are stored in the database.
+ */
+public class EntryCompressor {
+
+    public static final int BUILT_IN_DICTIONARY_ID = 0;
+
+    // Deflate only looks back 32KB, and shorter dictionaries are cheaper to set
+    private static final int MAX_DICTIONARY_BYTES = 16 * 1024;
+
+    private static final String BUILT_IN_DICTIONARY =
+        "thank you for the little things. my friends and family. " +
+        "a good night's sleep, a warm cup of coffee this morning. " +
+        "I am thankful for my health, my home and the people who love me. " +
+        "Today I am grateful for ";
+
+    private final Map<Integer, byte[]> dictionaries = new ConcurrentHashMap<>();
+    private volatile int currentDictionaryId = BUILT_IN_DICTIONARY_ID;
+
+    public EntryCompressor() {
+        dictionaries.put(BUILT_IN_DICTIONARY_ID, BUILT_IN_DICTIONARY.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Register a dictionary loaded from the database; the highest id is used for new writes
+     */
+    public void addDictionary(int id, byte[] dictionary) {
+        dictionaries.put(id, dictionary);
+        if (id > currentDictionaryId) {
+            currentDictionaryId = id;
+        }
+    }
+
+    public int getCurrentDictionaryId() {
+        return currentDictionaryId;
+    }
+
+    /**
+     * Compress text with the current dictionary
+     */
+    public byte[] compress(String text) {
+        return compress(text, currentDictionaryId);
+    }
+
+    public byte[] compress(String text, int dictionaryId) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setDictionary(getDictionary(dictionaryId));
+            deflater.setInput(text.getBytes(StandardCharsets.UTF_8));
+            deflater.finish();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(text.length() / 2 + 16);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Decompress text written by {@link #compress(String, int)}
+     */
+    public String decompress(byte[] data, int dictionaryId) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setDictionary(getDictionary(dictionaryId));
+            inflater.setInput(data);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed entry text", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Build a dictionary from sample entries: the most frequent words and word pairs,
+     * with the most frequent placed last so they get the shortest back-references
+     */
+    public static byte[] trainDictionary(List<String> samples) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String sample : samples) {
+            String[] words = sample.toLowerCase(Locale.ROOT).split("\\s+");
+            for (int i = 0; i < words.length; i++) {
+                if (words[i].length() < 3) continue;
+                counts.merge(words[i], 1, Integer::sum);
+                if (i + 1 < words.length) {
+                    counts.merge(words[i] + " " + words[i + 1], 1, Integer::sum);
+                }
+            }
+        }
+
+        // Anything seen once is unlikely to repeat
+        List<Map.Entry<String, Integer>> ranked = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() > 1) ranked.add(entry);
+        }
+        // Rank by bytes saved if the string is matched every time it occurs
+        ranked.sort((a, b) -> Integer.compare(
+                b.getValue() * b.getKey().length(), a.getValue() * a.getKey().length()));
+
+        List<String> chosen = new ArrayList<>();
+        int size = BUILT_IN_DICTIONARY.length();
+        for (Map.Entry<String, Integer> entry : ranked) {
+            int length = entry.getKey().length() + 1;
+            if (size + length > MAX_DICTIONARY_BYTES) break;
+            chosen.add(entry.getKey());
+            size += length;
+        }
+
+        StringBuilder dictionary = new StringBuilder(size);
+        for (int i = chosen.size() - 1; i >= 0; i--) {
+            dictionary.append(chosen.get(i)).append(' ');
+        }
+        dictionary.append(BUILT_IN_DICTIONARY);
+
+        return dictionary.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] getDictionary(int dictionaryId) {
+        byte[] dictionary = dictionaries.get(dictionaryId);
+        if (dictionary == null) {
+            throw new IllegalStateException("Unknown compression dictionary: " + dictionaryId);
+        }
+        return dictionary;
+    }
+}
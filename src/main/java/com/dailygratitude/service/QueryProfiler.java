@@ -0,0 +1,413 @@
+package com.dailygratitude.service;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import com.dailygratitude.model.QueryStats;
+import com.dailygratitude.model.SlowQuery;
+
+/**
+ * Times every statement run through a wrapped JDBC connection and logs the slow ones.
+ *
+ * The connection, its statements and their result sets are wrapped in dynamic proxies
+ * that record bound parameters and measure the time spent executing and stepping
+ * through rows (SQLite does most of a query's work in next(), not in executeQuery).
+ * Caller work between rows is not counted. Statements over the threshold are written
+ * with their parameters to a rotating log file, and the first time a given SQL is slow
+ * its EXPLAIN QUERY PLAN is captured and checked for full table scans and temporary
+ * B-tree sorts. Recent slow queries and per-statement totals are kept for diagnostics.
+ */
+public class QueryProfiler {
+
+    public static final long DEFAULT_THRESHOLD_MILLIS = 100;
+
+    private static final int RECENT_SLOW_QUERIES = 100;
+    private static final int LOG_FILE_LIMIT = 1024 * 1024;
+    private static final int LOG_FILE_COUNT = 5;
+    private static final int MAX_PARAMETER_LENGTH = 60;
+
+    private static class Counters {
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+        final LongAdder slowCount = new LongAdder();
+    }
+
+    private final String logFilePattern;
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> plans = new ConcurrentHashMap<>();
+    private final Deque<SlowQuery> recentSlowQueries = new ArrayDeque<>();
+
+    private volatile long thresholdNanos = DEFAULT_THRESHOLD_MILLIS * 1_000_000;
+    private Connection rawConnection;
+    private Logger logger;
+    private FileHandler fileHandler;
+
+    /**
+     * Slow queries go to files named after the pattern, e.g. "dailygratitude.db.slow.%g.log"
+     * (see {@link FileHandler}); the newest file has index 0
+     */
+    public QueryProfiler(String logFilePattern) {
+        this.logFilePattern = logFilePattern;
+    }
+
+    /**
+     * Wrap a connection; everything run through the returned connection is timed
+     */
+    public synchronized Connection wrap(Connection connection) {
+        rawConnection = connection;
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new ConnectionHandler(connection));
+    }
+
+    /**
+     * Statements taking at least this long are logged; 0 logs every statement
+     */
+    public void setThresholdMillis(long thresholdMillis) {
+        this.thresholdNanos = Math.max(0, thresholdMillis) * 1_000_000;
+    }
+
+    public long getThresholdMillis() {
+        return thresholdNanos / 1_000_000;
+    }
+
+    /**
+     * The most recent slow statements, newest first
+     */
+    public synchronized List<SlowQuery> getRecentSlowQueries() {
+        return new ArrayList<>(recentSlowQueries);
+    }
+
+    /**
+     * Execution totals for every distinct SQL seen, most total time first
+     */
+    public List<QueryStats> getStatistics() {
+        List<QueryStats> result = new ArrayList<>();
+        for (Map.Entry<String, Counters> entry : counters.entrySet()) {
+            Counters c = entry.getValue();
+            result.add(new QueryStats(entry.getKey(), c.count.sum(), c.totalNanos.sum() / 1e6,
+                    c.maxNanos.get() / 1e6, c.slowCount.sum()));
+        }
+        result.sort((a, b) -> Double.compare(b.getTotalMillis(), a.getTotalMillis()));
+        return result;
+    }
+
+    /**
+     * Captured EXPLAIN QUERY PLAN output, keyed by SQL
+     */
+    public Map<String, List<String>> getQueryPlans() {
+        return new TreeMap<>(plans);
+    }
+
+    public synchronized void reset() {
+        counters.clear();
+        plans.clear();
+        recentSlowQueries.clear();
+    }
+
+    public synchronized void close() {
+        if (fileHandler != null) {
+            fileHandler.close();
+            logger.removeHandler(fileHandler);
+            fileHandler = null;
+        }
+    }
+
+    /**
+     * Called when a statement execution has finished, including reading its rows
+     */
+    private void record(String sql, Map<Integer, Object> parameters, long nanos, long rows) {
+        Counters c = counters.computeIfAbsent(sql, k -> new Counters());
+        c.count.increment();
+        c.totalNanos.add(nanos);
+        c.maxNanos.accumulateAndGet(nanos, Math::max);
+        if (nanos < thresholdNanos) return;
+        c.slowCount.increment();
+
+        SlowQuery slow = new SlowQuery();
+        slow.setTimestamp(LocalDateTime.now().toString());
+        slow.setSql(sql);
+        slow.setParameters(formatParameters(parameters));
+        slow.setDurationMillis(nanos / 1e6);
+        slow.setRows(rows);
+
+        boolean firstTime = !plans.containsKey(sql);
+        List<String> plan = plans.computeIfAbsent(sql, k -> explain(k, parameters));
+        slow.setPlan(plan);
+        slow.setWarnings(planWarnings(plan));
+
+        synchronized (this) {
+            recentSlowQueries.addFirst(slow);
+            if (recentSlowQueries.size() > RECENT_SLOW_QUERIES) recentSlowQueries.removeLast();
+        }
+
+        StringBuilder line = new StringBuilder();
+        line.append(String.format(Locale.ROOT, "SLOW %.1f ms rows=%d %s %s", slow.getDurationMillis(), rows, sql, slow.getParameters()));
+        if (!slow.getWarnings().isEmpty()) line.append(' ').append(slow.getWarnings());
+        if (firstTime) {
+            for (String step : plan) {
+                line.append(System.lineSeparator()).append("    PLAN ").append(step);
+            }
+        }
+        log(line.toString());
+        System.out.println("🐢 Slow query (" + String.format(Locale.ROOT, "%.1f", slow.getDurationMillis()) + " ms): " + sql);
+    }
+
+    /**
+     * EXPLAIN QUERY PLAN for a statement, bound with the same parameters.
+     * Run on the unwrapped connection so it is not itself profiled.
+     */
+    private List<String> explain(String sql, Map<Integer, Object> parameters) {
+        List<String> plan = new ArrayList<>();
+        String keyword = sql.trim().split("\\s+", 2)[0].toUpperCase(Locale.ROOT);
+        if (!List.of("SELECT", "WITH", "INSERT", "UPDATE", "DELETE", "REPLACE").contains(keyword)) {
+            return plan;
+        }
+
+        try (PreparedStatement pstmt = rawConnection.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            for (Map.Entry<Integer, Object> parameter : parameters.entrySet()) {
+                pstmt.setObject(parameter.getKey(), parameter.getValue());
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    plan.add(rs.getString("detail"));
+                }
+            }
+        } catch (SQLException e) {
+            plan.add("(plan unavailable: " + e.getMessage() + ")");
+        }
+        return plan;
+    }
+
+    /**
+     * Steps that read a whole table or sort into a temporary B-tree
+     */
+    static List<String> planWarnings(List<String> plan) {
+        List<String> warnings = new ArrayList<>();
+        for (String step : plan) {
+            String upper = step.toUpperCase(Locale.ROOT);
+            if (upper.startsWith("SCAN ") && !upper.contains(" USING ")) {
+                warnings.add("full scan: " + step);
+            }
+            if (upper.contains("TEMP B-TREE")) {
+                warnings.add("temp b-tree: " + step);
+            }
+        }
+        return warnings;
+    }
+
+    private static String formatParameters(Map<Integer, Object> parameters) {
+        StringBuilder sb = new StringBuilder("[");
+        for (Map.Entry<Integer, Object> parameter : parameters.entrySet()) {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(parameter.getKey()).append('=');
+            Object value = parameter.getValue();
+            if (value == null) {
+                sb.append("NULL");
+            } else if (value instanceof byte[]) {
+                sb.append('<').append(((byte[]) value).length).append(" bytes>");
+            } else if (value instanceof String) {
+                String text = (String) value;
+                if (text.length() > MAX_PARAMETER_LENGTH) text = text.substring(0, MAX_PARAMETER_LENGTH) + "...";
+                sb.append('\'').append(text).append('\'');
+            } else {
+                sb.append(value);
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    private synchronized void log(String message) {
+        if (logger == null) {
+            logger = Logger.getAnonymousLogger(); // one per database, each with its own file
+            logger.setUseParentHandlers(false);
+            try {
+                fileHandler = new FileHandler(logFilePattern, LOG_FILE_LIMIT, LOG_FILE_COUNT, true);
+                fileHandler.setFormatter(new Formatter() {
+                    @Override
+                    public String format(LogRecord record) {
+                        return LocalDateTime.now() + " " + record.getMessage() + System.lineSeparator();
+                    }
+                });
+                logger.addHandler(fileHandler);
+            } catch (IOException e) {
+                System.err.println("❌ Slow query log unavailable: " + e.getMessage());
+            }
+        }
+        logger.info(message);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = QueryProfiler.invoke(target, method, args);
+            String name = method.getName();
+
+            if (name.equals("prepareStatement")) {
+                return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                        new Class<?>[] { PreparedStatement.class }, new StatementHandler((Statement) result, (String) args[0]));
+            }
+            if (name.equals("createStatement")) {
+                return Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                        new Class<?>[] { Statement.class }, new StatementHandler((Statement) result, null));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * One statement: remembers its SQL and bound parameters, and times each execution
+     */
+    private class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String preparedSql;
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+        private Execution current;
+
+        StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                parameters.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.equals("close")) {
+                finish();
+            }
+
+            if (!name.startsWith("execute")) {
+                return QueryProfiler.invoke(target, method, args);
+            }
+
+            finish();
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            Execution execution = new Execution(sql, new TreeMap<>(parameters));
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = QueryProfiler.invoke(target, method, args);
+            } finally {
+                execution.nanos += System.nanoTime() - start;
+            }
+
+            if (result instanceof ResultSet) {
+                current = execution;
+                return Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                        new Class<?>[] { ResultSet.class }, new ResultSetHandler((ResultSet) result, execution));
+            }
+            if (result instanceof Integer) {
+                execution.rows = (Integer) result;
+            }
+            execution.finish();
+            return result;
+        }
+
+        private void finish() {
+            if (current != null) {
+                current.finish();
+                current = null;
+            }
+        }
+    }
+
+    /**
+     * Adds the time spent in next() to the execution, which is recorded when the rows run out or the set is closed
+     */
+    private class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final Execution execution;
+
+        ResultSetHandler(ResultSet target, Execution execution) {
+            this.target = target;
+            this.execution = execution;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            if (name.equals("next")) {
+                long start = System.nanoTime();
+                boolean hasRow;
+                try {
+                    hasRow = (Boolean) QueryProfiler.invoke(target, method, args);
+                } finally {
+                    execution.nanos += System.nanoTime() - start;
+                }
+                if (hasRow) {
+                    execution.rows++;
+                } else {
+                    execution.finish();
+                }
+                return hasRow;
+            }
+
+            if (name.equals("close")) {
+                execution.finish();
+            }
+            return QueryProfiler.invoke(target, method, args);
+        }
+    }
+
+    private class Execution {
+        final String sql;
+        final Map<Integer, Object> parameters;
+        long nanos;
+        long rows;
+        boolean finished;
+
+        Execution(String sql, Map<Integer, Object> parameters) {
+            this.sql = sql;
+            this.parameters = parameters;
+        }
+
+        void finish() {
+            if (finished) return;
+            finished = true;
+            record(sql, parameters, nanos, rows);
+        }
+    }
+}
@@ -149,7 +149,9 @@ public class QuoteService {
                 String text = quoteNode.get("q").asText();
                 String author = quoteNode.get("a").asText();
                 
-                return new Quote(text, author);
+                Quote quote = new Quote(text, author);
+                quote.setSource("zenquotes");
+                return quote;
             }
             
         } catch (Exception e) {
@@ -169,7 +171,9 @@ public class QuoteService {
             String text = rootNode.get("content").asText();
             String author = rootNode.get("author").asText();
             
-            return new Quote(text, author);
+            Quote quote = new Quote(text, author);
+            quote.setSource("quotable");
+            return quote;
             
         } catch (Exception e) {
             System.err.println("Error parsing Quotable response: " + e.getMessage());
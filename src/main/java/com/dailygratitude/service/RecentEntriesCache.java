@@ -0,0 +1,130 @@
+package com.dailygratitude.service;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.dailygratitude.model.ChangeEvent;
+import com.dailygratitude.model.GratitudeEntry;
+
+/**
+ * The newest entries and today's entries, loaded once and then kept current from change events.
+ *
+ * A list that is loaded while a change is being committed can't be trusted, so each
+ * change bumps a version and a load only sticks if no change happened during it. Events
+ * for entries a load already picked up are recognized by id and ignored.
+ */
+public class RecentEntriesCache {
+
+    private static final Comparator<GratitudeEntry> NEWEST_FIRST =
+            Comparator.comparing(GratitudeEntry::getCreatedDateTime).reversed();
+
+    private final DatabaseService databaseService;
+    private final int capacity;
+
+    private List<GratitudeEntry> recent; // newest first, null until loaded
+    private List<GratitudeEntry> today;
+    private LocalDate todayDate;
+    private long version;
+
+    public RecentEntriesCache(DatabaseService databaseService, int capacity) {
+        this.databaseService = databaseService;
+        this.capacity = capacity;
+        databaseService.getChangeEvents().subscribe(this::apply);
+    }
+
+    /**
+     * Up to capacity newest entries; only the first call (or one after a delete) queries the database
+     */
+    public List<GratitudeEntry> getRecentEntries() throws SQLException {
+        long seen;
+        synchronized (this) {
+            if (recent != null) return new ArrayList<>(recent);
+            seen = version;
+        }
+
+        List<GratitudeEntry> loaded = databaseService.getRecentEntries(capacity);
+        synchronized (this) {
+            if (version == seen) recent = new ArrayList<>(loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Entries written today, newest first
+     */
+    public List<GratitudeEntry> getTodaysEntries() throws SQLException {
+        LocalDate date = LocalDate.now();
+        long seen;
+        synchronized (this) {
+            if (today != null && date.equals(todayDate)) return new ArrayList<>(today);
+            seen = version;
+        }
+
+        List<GratitudeEntry> loaded = databaseService.getEntriesForDate(date);
+        synchronized (this) {
+            if (version == seen) {
+                today = new ArrayList<>(loaded);
+                todayDate = date;
+            }
+        }
+        return loaded;
+    }
+
+    private synchronized void apply(List<ChangeEvent> events) {
+        for (ChangeEvent event : events) {
+            if (!event.isEntryEvent()) continue;
+            version++;
+            GratitudeEntry entry = event.getEntry();
+
+            switch (event.getType()) {
+                case ENTRY_INSERTED:
+                    if (recent != null) {
+                        insertSorted(recent, entry);
+                        if (recent.size() > capacity) recent.remove(recent.size() - 1);
+                    }
+                    if (today != null && entry.getCreatedDate().equals(todayDate)) {
+                        insertSorted(today, entry);
+                    }
+                    break;
+                case ENTRY_UPDATED:
+                    replace(recent, entry);
+                    replace(today, entry);
+                    break;
+                case ENTRY_DELETED:
+                    // A full list can't be refilled from events, so reload it on next use
+                    if (recent != null && recent.removeIf(e -> e.getId().equals(entry.getId()))
+                            && recent.size() == capacity - 1) {
+                        recent = null;
+                    }
+                    if (today != null) today.removeIf(e -> e.getId().equals(entry.getId()));
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private static void insertSorted(List<GratitudeEntry> list, GratitudeEntry entry) {
+        for (GratitudeEntry existing : list) {
+            if (existing.getId().equals(entry.getId())) return;
+        }
+        int position = 0;
+        while (position < list.size() && NEWEST_FIRST.compare(list.get(position), entry) <= 0) {
+            position++;
+        }
+        list.add(position, entry);
+    }
+
+    private static void replace(List<GratitudeEntry> list, GratitudeEntry entry) {
+        if (list == null) return;
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i).getId().equals(entry.getId())) {
+                list.set(i, entry);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.dailygratitude.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+import com.dailygratitude.model.GratitudeEntry;
+
+/**
+ * Near-duplicate detection over entry text using MinHash signatures and LSH banding.
+ *
+ * Each entry's set of words gets 32 MinHash values, grouped into 8 bands of 4.
+ * The entry id is filed under a hash of every band, so two entries whose word sets
+ * overlap strongly (Jaccard 0.7 is found ~90% of the time) share at least one bucket,
+ * and a query only inspects 8 buckets instead of comparing against every entry.
+ * Candidates are confirmed with a compact 1-byte-per-hash sketch. A bucket keeps only
+ * its 64 most recently added entries, so even an entry repeated every day for years
+ * costs a bounded number of comparisons; older copies simply stop being reported.
+ *
+ * Signatures are persisted to a small sidecar file so startup does not re-read and
+ * re-hash every entry. The first change after a save or load deletes that file, so
+ * a crash can never leave behind signatures for content that has since changed.
+ */
+public class SimilarityIndex {
+
+    public static final double DEFAULT_MIN_SIMILARITY = 0.7;
+
+    private static final int HASHES = 32;
+    private static final int BANDS = 8;
+    private static final int ROWS = HASHES / BANDS;
+    private static final int FILE_MAGIC = 0x4D484958; // "MHIX"
+    private static final int FILE_VERSION = 1;
+    private static final int MAX_BUCKET_SIZE = 64;
+
+    private static class Signature {
+        final long[] bandKeys = new long[BANDS];
+        final byte[] sketch = new byte[HASHES]; // low byte of each MinHash value
+    }
+
+    private final Map<Long, Signature> signatures = new HashMap<>();
+    private final Map<Long, LinkedHashSet<Long>> buckets = new HashMap<>(); // oldest first
+
+    private Path savedFile; // sidecar matching the current contents, if any
+
+    /**
+     * MinHash signature of the entry's set of words
+     */
+    private static Signature signature(String text) {
+        long[] minimums = new long[HASHES];
+        Arrays.fill(minimums, Long.MAX_VALUE);
+
+        Set<String> words = new HashSet<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}']+")) {
+            if (!word.isEmpty()) words.add(word);
+        }
+
+        for (String word : words) {
+            long base = hash64(word);
+            for (int i = 0; i < HASHES; i++) {
+                // Independent hash functions derived from one base hash
+                long value = mix(base + (i + 1) * 0x9E3779B97F4A7C15L) >>> 1;
+                if (value < minimums[i]) minimums[i] = value;
+            }
+        }
+
+        Signature signature = new Signature();
+        for (int band = 0; band < BANDS; band++) {
+            long key = band;
+            for (int row = 0; row < ROWS; row++) {
+                key = mix(key * 31 + minimums[band * ROWS + row]);
+            }
+            // Top bits carry the band number so bands never share buckets
+            signature.bandKeys[band] = ((long) band << 56) | (key >>> 8);
+        }
+        for (int i = 0; i < HASHES; i++) {
+            signature.sketch[i] = (byte) minimums[i];
+        }
+        return signature;
+    }
+
+    public synchronized void add(long id, String text) {
+        invalidateSavedFile();
+        add(id, signature(text));
+    }
+
+    public synchronized void remove(long id) {
+        invalidateSavedFile();
+        removeSignature(id);
+    }
+
+    /**
+     * Compute signatures for a batch of entries in parallel and add them to the index
+     */
+    public void addAll(List<GratitudeEntry> entries) {
+        Signature[] computed = new Signature[entries.size()];
+        IntStream.range(0, entries.size()).parallel()
+                 .forEach(i -> computed[i] = signature(entries.get(i).getEntryText()));
+
+        synchronized (this) {
+            invalidateSavedFile();
+            for (int i = 0; i < computed.length; i++) {
+                add(entries.get(i).getId(), computed[i]);
+            }
+        }
+    }
+
+    /**
+     * Ids of indexed entries whose estimated word overlap (Jaccard) with the text is at least minSimilarity
+     */
+    public List<Long> findSimilar(String text, double minSimilarity) {
+        return findSimilar(signature(text), minSimilarity, -1);
+    }
+
+    /**
+     * Ids of other indexed entries similar to an indexed entry
+     */
+    public synchronized List<Long> findSimilar(long id, double minSimilarity) {
+        Signature signature = signatures.get(id);
+        return signature == null ? new ArrayList<>() : findSimilar(signature, minSimilarity, id);
+    }
+
+    public synchronized int size() {
+        return signatures.size();
+    }
+
+    public synchronized void clear() {
+        signatures.clear();
+        buckets.clear();
+    }
+
+    /**
+     * Write all signatures to a sidecar file; checksum identifies the table state it matches
+     */
+    public synchronized void save(Path file, long checksum) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FILE_VERSION);
+            out.writeLong(checksum);
+            out.writeInt(signatures.size());
+            // Oldest first, so reloading fills the capped buckets in the same order
+            for (long id : new TreeSet<>(signatures.keySet())) {
+                Signature signature = signatures.get(id);
+                out.writeLong(id);
+                for (long key : signature.bandKeys) {
+                    out.writeLong(key);
+                }
+                out.write(signature.sketch);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        savedFile = file;
+    }
+
+    /**
+     * Load a sidecar file written by {@link #save(Path, long)}. Returns false, leaving the index
+     * empty, if the file is missing, damaged or was written for a different table state.
+     */
+    public synchronized boolean load(Path file, long expectedChecksum) {
+        clear();
+        if (!Files.exists(file)) return false;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION || in.readLong() != expectedChecksum) {
+                return false;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long id = in.readLong();
+                Signature signature = new Signature();
+                for (int band = 0; band < BANDS; band++) {
+                    signature.bandKeys[band] = in.readLong();
+                }
+                in.readFully(signature.sketch);
+                add(id, signature);
+            }
+            savedFile = file;
+            return true;
+        } catch (IOException e) {
+            clear();
+            return false;
+        }
+    }
+
+    private void add(long id, Signature signature) {
+        removeSignature(id);
+        signatures.put(id, signature);
+        for (long key : signature.bandKeys) {
+            LinkedHashSet<Long> bucket = buckets.computeIfAbsent(key, k -> new LinkedHashSet<>(4));
+            bucket.add(id);
+            if (bucket.size() > MAX_BUCKET_SIZE) {
+                Iterator<Long> oldest = bucket.iterator();
+                oldest.next();
+                oldest.remove();
+            }
+        }
+    }
+
+    private void removeSignature(long id) {
+        Signature signature = signatures.remove(id);
+        if (signature == null) return;
+
+        for (long key : signature.bandKeys) {
+            Set<Long> bucket = buckets.get(key);
+            if (bucket != null) {
+                bucket.remove(id);
+                if (bucket.isEmpty()) buckets.remove(key);
+            }
+        }
+    }
+
+    /**
+     * The sidecar no longer matches once the index changes; delete it so a crash forces a rebuild
+     */
+    private void invalidateSavedFile() {
+        if (savedFile == null) return;
+        try {
+            Files.deleteIfExists(savedFile);
+        } catch (IOException e) {
+            System.err.println("❌ Failed to remove stale similarity index: " + e.getMessage());
+        }
+        savedFile = null;
+    }
+
+    /**
+     * At most BANDS * MAX_BUCKET_SIZE candidates are compared, whatever the index size
+     */
+    private synchronized List<Long> findSimilar(Signature signature, double minSimilarity, long excludeId) {
+        Set<Long> checked = new HashSet<>();
+        List<Long> result = new ArrayList<>();
+        for (long key : signature.bandKeys) {
+            Set<Long> bucket = buckets.get(key);
+            if (bucket == null) continue;
+            for (long candidate : bucket) {
+                if (candidate == excludeId || !checked.add(candidate)) continue;
+                if (estimateSimilarity(signature, signatures.get(candidate)) >= minSimilarity) {
+                    result.add(candidate);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Jaccard estimate from the 1-byte sketches, corrected for accidental byte matches
+     */
+    private static double estimateSimilarity(Signature a, Signature b) {
+        int matches = 0;
+        for (int i = 0; i < HASHES; i++) {
+            if (a.sketch[i] == b.sketch[i]) matches++;
+        }
+        double chance = 1.0 / 256;
+        return Math.max(0, ((double) matches / HASHES - chance) / (1 - chance));
+    }
+
+    /**
+     * FNV-1a followed by a SplitMix64 finalizer so every output bit depends on every char
+     */
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * SplitMix64 finalizer
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 30;
+        hash *= 0xbf58476d1ce4e5b9L;
+        hash ^= hash >>> 27;
+        hash *= 0x94d049bb133111ebL;
+        hash ^= hash >>> 31;
+        return hash;
+    }
+}
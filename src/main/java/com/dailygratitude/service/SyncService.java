@@ -0,0 +1,64 @@
+package com.dailygratitude.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.dailygratitude.model.SyncBundle;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Delta sync between two copies of the journal through bundle files.
+ *
+ * Each device exports the changes the other has not seen into a gzipped JSON bundle,
+ * carries it over (shared folder, USB stick, ...) and applies it on the other side.
+ * A bundle also says what its sender has seen, so the next export back only holds
+ * newer changes. Applying the same bundle twice, or bundles out of order, is harmless.
+ */
+public class SyncService {
+
+    private final DatabaseService databaseService;
+    private final ObjectMapper objectMapper;
+
+    public SyncService(DatabaseService databaseService) {
+        this.databaseService = databaseService;
+        this.objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * Write the changes peerDeviceId hasn't seen (everything if null) to file; returns the change count
+     */
+    public int exportBundle(Path file, String peerDeviceId) throws SQLException, IOException {
+        SyncBundle bundle = databaseService.exportChanges(peerDeviceId);
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+            objectMapper.writeValue(out, bundle);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        System.out.println("📤 Exported " + bundle.getChanges().size() + " changes to " + file);
+        return bundle.getChanges().size();
+    }
+
+    /**
+     * Apply a bundle written by another device; returns the number of changes that took effect
+     */
+    public int applyBundle(Path file) throws SQLException, IOException {
+        return databaseService.applyChanges(readBundle(file));
+    }
+
+    public SyncBundle readBundle(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return objectMapper.readValue(in, SyncBundle.class);
+        }
+    }
+}
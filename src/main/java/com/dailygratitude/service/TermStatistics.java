@@ -0,0 +1,237 @@
+package com.dailygratitude.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.dailygratitude.model.GratitudeEntry;
+import com.dailygratitude.model.TermCount;
+
+/**
+ * Word and phrase counts over all entries, overall and per month.
+ *
+ * Terms are interned to int ids and counted in primitive maps, so keeping the
+ * counts current on save and delete is a handful of array updates, and top-K
+ * queries walk the counts with a K-sized heap instead of re-tokenizing text.
+ * DatabaseService persists the same counts in the term_counts table.
+ */
+public class TermStatistics {
+
+    // Entries per fork-join leaf during backfill
+    private static final int BACKFILL_CHUNK = 500;
+
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+        "the", "and", "for", "that", "this", "with", "was", "are", "have", "has", "had", "but", "not",
+        "you", "your", "all", "our", "out", "her", "his", "him", "she", "they", "them", "their", "its",
+        "from", "about", "into", "been", "were", "will", "would", "could", "there", "what", "when",
+        "which", "who", "how", "just", "also", "very", "really", "today", "grateful", "thankful",
+        "feel", "feeling", "felt", "much", "some", "more", "one", "got", "get", "can", "did", "being",
+        "i'm", "it's", "because", "after", "before", "than", "then", "too", "any", "such"
+    ));
+
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<String> terms = new ArrayList<>();
+    private IntIntHashMap totals = new IntIntHashMap(1024);
+    private final Map<Integer, IntIntHashMap> monthly = new HashMap<>();
+
+    /**
+     * Count the words and two-word phrases in a piece of text, skipping stop words
+     */
+    public static Map<String, Integer> countTerms(String text) {
+        Map<String, Integer> counts = new HashMap<>();
+        String previous = null;
+
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}']+")) {
+            word = stripApostrophes(word);
+            if (word.length() < 3 || STOP_WORDS.contains(word)) {
+                previous = null;
+                continue;
+            }
+            counts.merge(word, 1, Integer::sum);
+            if (previous != null) {
+                counts.merge(previous + " " + word, 1, Integer::sum);
+            }
+            previous = word;
+        }
+
+        return counts;
+    }
+
+    /**
+     * Apply an entry's term counts; sign is 1 for a saved entry and -1 for a deleted one
+     */
+    public synchronized void apply(LocalDate date, Map<String, Integer> counts, int sign) {
+        IntIntHashMap month = monthly.computeIfAbsent(monthKey(YearMonth.from(date)), k -> new IntIntHashMap());
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            int termId = termId(entry.getKey());
+            int delta = sign * entry.getValue();
+            totals.addTo(termId, delta);
+            month.addTo(termId, delta);
+        }
+    }
+
+    /**
+     * Set a stored count (used when loading from the database)
+     */
+    public synchronized void load(String term, YearMonth month, int count) {
+        int termId = termId(term);
+        totals.addTo(termId, count);
+        monthly.computeIfAbsent(monthKey(month), k -> new IntIntHashMap()).addTo(termId, count);
+    }
+
+    public synchronized void clear() {
+        termIds.clear();
+        terms.clear();
+        monthly.clear();
+        totals = new IntIntHashMap(1024);
+    }
+
+    public synchronized boolean isEmpty() {
+        return totals.size() == 0;
+    }
+
+    /**
+     * Most frequent terms over all entries
+     */
+    public synchronized List<TermCount> topTerms(int k, boolean phrasesOnly) {
+        return top(totals, k, phrasesOnly);
+    }
+
+    /**
+     * Most frequent terms in entries written during the given month
+     */
+    public synchronized List<TermCount> topTerms(YearMonth month, int k, boolean phrasesOnly) {
+        IntIntHashMap counts = monthly.get(monthKey(month));
+        return counts == null ? new ArrayList<>() : top(counts, k, phrasesOnly);
+    }
+
+    /**
+     * Every (term, month, count) triple, for persisting a backfill
+     */
+    public synchronized void forEachCount(CountConsumer consumer) {
+        for (Map.Entry<Integer, IntIntHashMap> month : monthly.entrySet()) {
+            IntIntHashMap counts = month.getValue();
+            YearMonth yearMonth = YearMonth.of(month.getKey() / 12, month.getKey() % 12 + 1);
+            for (int slot = 0; slot < counts.capacity(); slot++) {
+                if (counts.isUsed(slot)) {
+                    consumer.accept(terms.get(counts.keyAt(slot)), yearMonth, counts.valueAt(slot));
+                }
+            }
+        }
+    }
+
+    public interface CountConsumer {
+        void accept(String term, YearMonth month, int count);
+    }
+
+    /**
+     * Tokenize all entries in parallel with fork-join and merge the counts in
+     */
+    public void backfill(List<GratitudeEntry> entries) {
+        Map<YearMonth, Map<String, Integer>> counts = ForkJoinPool.commonPool().invoke(new BackfillTask(entries, 0, entries.size()));
+        synchronized (this) {
+            for (Map.Entry<YearMonth, Map<String, Integer>> month : counts.entrySet()) {
+                apply(month.getKey().atDay(1), month.getValue(), 1);
+            }
+        }
+    }
+
+    @SuppressWarnings("serial") // never serialized; RecursiveTask just happens to be Serializable
+    private static class BackfillTask extends RecursiveTask<Map<YearMonth, Map<String, Integer>>> {
+        private final List<GratitudeEntry> entries;
+        private final int from;
+        private final int to;
+
+        BackfillTask(List<GratitudeEntry> entries, int from, int to) {
+            this.entries = entries;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<YearMonth, Map<String, Integer>> compute() {
+            if (to - from <= BACKFILL_CHUNK) {
+                Map<YearMonth, Map<String, Integer>> result = new HashMap<>();
+                for (int i = from; i < to; i++) {
+                    GratitudeEntry entry = entries.get(i);
+                    Map<String, Integer> month = result.computeIfAbsent(YearMonth.from(entry.getCreatedDate()), k -> new HashMap<>());
+                    countTerms(entry.getEntryText()).forEach((term, count) -> month.merge(term, count, Integer::sum));
+                }
+                return result;
+            }
+
+            int middle = (from + to) >>> 1;
+            BackfillTask left = new BackfillTask(entries, from, middle);
+            left.fork();
+            Map<YearMonth, Map<String, Integer>> right = new BackfillTask(entries, middle, to).compute();
+            Map<YearMonth, Map<String, Integer>> merged = left.join();
+
+            for (Map.Entry<YearMonth, Map<String, Integer>> month : right.entrySet()) {
+                Map<String, Integer> target = merged.computeIfAbsent(month.getKey(), k -> new HashMap<>());
+                month.getValue().forEach((term, count) -> target.merge(term, count, Integer::sum));
+            }
+            return merged;
+        }
+    }
+
+    /**
+     * K largest counts using a min-heap of size K
+     */
+    private List<TermCount> top(IntIntHashMap counts, int k, boolean phrasesOnly) {
+        PriorityQueue<long[]> heap = new PriorityQueue<>(k + 1, (a, b) -> Long.compare(a[1], b[1]));
+
+        for (int slot = 0; slot < counts.capacity(); slot++) {
+            if (!counts.isUsed(slot) || counts.valueAt(slot) <= 0) continue;
+            int termId = counts.keyAt(slot);
+            if (phrasesOnly && terms.get(termId).indexOf(' ') < 0) continue;
+
+            if (heap.size() < k) {
+                heap.add(new long[] { termId, counts.valueAt(slot) });
+            } else if (counts.valueAt(slot) > heap.peek()[1]) {
+                heap.poll();
+                heap.add(new long[] { termId, counts.valueAt(slot) });
+            }
+        }
+
+        List<TermCount> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            long[] top = heap.poll();
+            result.add(new TermCount(terms.get((int) top[0]), (int) top[1]));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private int termId(String term) {
+        Integer id = termIds.get(term);
+        if (id == null) {
+            id = terms.size();
+            terms.add(term);
+            termIds.put(term, id);
+        }
+        return id;
+    }
+
+    private static int monthKey(YearMonth month) {
+        return month.getYear() * 12 + month.getMonthValue() - 1;
+    }
+
+    private static String stripApostrophes(String word) {
+        int start = 0;
+        int end = word.length();
+        while (start < end && word.charAt(start) == '\'') start++;
+        while (end > start && word.charAt(end - 1) == '\'') end--;
+        return word.substring(start, end);
+    }
+}
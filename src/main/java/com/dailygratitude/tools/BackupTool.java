@@ -0,0 +1,145 @@
+package com.dailygratitude.tools;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.dailygratitude.service.BackupService;
+import com.dailygratitude.service.DatabaseService;
+
+/**
+ * Command line access to the backup subsystem.
+ *
+ *   backup  [database] [backupDir]             take a snapshot now
+ *   list    [backupDir]                        list snapshots, oldest first
+ *   restore snapshot [target] [backupDir]      rebuild a snapshot into target (app must be closed)
+ *   bench   [seconds] [entries]                measure save latency with and without a running backup
+ *
+ * Run with sqlite-jdbc on the classpath:
+ *   java -cp target/classes:sqlite-jdbc.jar com.dailygratitude.tools.BackupTool list
+ */
+public class BackupTool {
+
+    private static final String DEFAULT_DATABASE = "dailygratitude.db";
+    private static final String DEFAULT_BACKUP_DIR = "backups";
+    private static final int RETAINED_CHAINS = 5;
+
+    public static void main(String[] args) throws Exception {
+        String command = args.length > 0 ? args[0] : "list";
+
+        switch (command) {
+            case "backup": {
+                BackupService backups = new BackupService(arg(args, 1, DEFAULT_DATABASE),
+                        Paths.get(arg(args, 2, DEFAULT_BACKUP_DIR)), RETAINED_CHAINS);
+                Path written = backups.backupNow();
+                System.out.println(written != null ? "Wrote " + written : "Nothing changed since the last snapshot");
+                backups.stop();
+                break;
+            }
+            case "list": {
+                BackupService backups = new BackupService(DEFAULT_DATABASE,
+                        Paths.get(arg(args, 1, DEFAULT_BACKUP_DIR)), RETAINED_CHAINS);
+                for (Path snapshot : backups.listSnapshots()) {
+                    System.out.printf("%-48s %,12d bytes%n", snapshot.getFileName(), Files.size(snapshot));
+                }
+                break;
+            }
+            case "restore": {
+                if (args.length < 2) {
+                    System.err.println("Usage: restore <snapshot> [target] [backupDir]");
+                    System.exit(1);
+                }
+                Path backupDir = Paths.get(arg(args, 3, DEFAULT_BACKUP_DIR));
+                BackupService backups = new BackupService(DEFAULT_DATABASE, backupDir, RETAINED_CHAINS);
+                backups.restore(backupDir.resolve(args[1]), Paths.get(arg(args, 2, DEFAULT_DATABASE)));
+                break;
+            }
+            case "bench":
+                bench(Integer.parseInt(arg(args, 1, "20")), Integer.parseInt(arg(args, 2, "20000")));
+                break;
+            default:
+                System.err.println("Unknown command: " + command);
+                System.exit(1);
+        }
+    }
+
+    /**
+     * Save entries for a while with no backup, then again while backups run back to back
+     */
+    private static void bench(int seconds, int seedEntries) throws Exception {
+        Path dir = Files.createTempDirectory("gratitude-backup-bench");
+        String database = dir.resolve("bench.db").toString();
+
+        DatabaseService db = new DatabaseService(database);
+        db.initializeDatabase();
+        SampleEntryGenerator generator = new SampleEntryGenerator(7);
+        for (int i = 0; i < seedEntries; i++) {
+            db.saveGratitudeEntry(generator.nextEntry());
+        }
+
+        List<Long> idle = measureSaves(db, generator, seconds);
+
+        BackupService backups = new BackupService(database, dir.resolve("backups"), 2);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger completed = new AtomicInteger();
+        Thread backupThread = new Thread(() -> {
+            while (running.get()) {
+                try {
+                    backups.backupNow();
+                    completed.incrementAndGet();
+                } catch (Exception e) {
+                    System.err.println("Backup failed: " + e.getMessage());
+                }
+            }
+        }, "backup-bench");
+        backupThread.start();
+
+        List<Long> busy = measureSaves(db, generator, seconds);
+        running.set(false);
+        backupThread.join();
+        backups.stop();
+        db.closeConnection();
+
+        System.out.println();
+        System.out.println("Save latency (ms)        p50      p95      p99      max   saves");
+        printLatency("no backup", idle);
+        printLatency("backup running", busy);
+        System.out.println("Backups completed while measuring: " + completed.get());
+    }
+
+    private static List<Long> measureSaves(DatabaseService db, SampleEntryGenerator generator, int seconds) throws Exception {
+        List<Long> latencies = new ArrayList<>();
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+
+        while (System.nanoTime() < end) {
+            String text = generator.nextEntry();
+            long start = System.nanoTime();
+            db.saveGratitudeEntry(text);
+            latencies.add(System.nanoTime() - start);
+        }
+
+        return latencies;
+    }
+
+    private static void printLatency(String label, List<Long> latencies) {
+        Collections.sort(latencies);
+        System.out.printf("%-18s %8.2f %8.2f %8.2f %8.2f %7d%n", label,
+                percentile(latencies, 0.50), percentile(latencies, 0.95),
+                percentile(latencies, 0.99), percentile(latencies, 1.0), latencies.size());
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) return 0;
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(p * sorted.size()) - 1);
+        return sorted.get(Math.max(0, index)) / 1e6;
+    }
+
+    private static String arg(String[] args, int index, String fallback) {
+        return args.length > index ? args[index] : fallback;
+    }
+}
@@ -0,0 +1,101 @@
+package com.dailygratitude.tools;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import com.dailygratitude.model.GratitudeEntry;
+import com.dailygratitude.service.DatabaseService;
+
+/**
+ * Compares database size and read throughput with and without entry compression.
+ *
+ * Run with sqlite-jdbc on the classpath:
+ *   java -cp target/classes:sqlite-jdbc.jar com.dailygratitude.tools.CompressionBenchmark [entries]
+ */
+public class CompressionBenchmark {
+
+    private static final int READ_ROUNDS = 20;
+
+    public static void main(String[] args) throws Exception {
+        int entryCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        Path dir = Files.createTempDirectory("gratitude-compression-bench");
+
+        DatabaseService plain = createDatabase(dir.resolve("plain.db"), entryCount);
+        DatabaseService compressed = createDatabase(dir.resolve("compressed.db"), entryCount);
+
+        // Exercise the same path as the migration of an existing journal
+        compressed.setCompressionThreshold(1024);
+        long start = System.nanoTime();
+        int migrated = compressed.compressExistingEntries();
+        long migrationMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println();
+        System.out.println("Entries: " + entryCount + " (" + migrated + " compressed in " + migrationMillis + " ms)");
+        System.out.printf("DB size  plain: %,d bytes | compressed: %,d bytes%n",
+                databaseSize(dir.resolve("plain.db")), databaseSize(dir.resolve("compressed.db")));
+
+        report("Preview reads", plain, compressed, entryCount, false);
+        report("Full-text reads", plain, compressed, entryCount, true);
+
+        plain.closeConnection();
+        compressed.closeConnection();
+    }
+
+    private static DatabaseService createDatabase(Path file, int entryCount) throws Exception {
+        DatabaseService db = new DatabaseService(file.toString());
+        db.setCompressionThreshold(0);
+        db.initializeDatabase();
+
+        // Same seed so both databases hold identical text
+        SampleEntryGenerator generator = new SampleEntryGenerator(42);
+        for (int i = 0; i < entryCount; i++) {
+            db.saveGratitudeEntry(generator.nextEntry());
+        }
+        return db;
+    }
+
+    /**
+     * Size of a database file after folding its WAL back in; in WAL mode the VACUUM
+     * after compression lands in the -wal file and the main file keeps its old size
+     */
+    private static long databaseSize(Path file) throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + file);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA wal_checkpoint(TRUNCATE)")) {
+            if (rs.next() && rs.getInt(1) != 0) {
+                System.out.println("⚠️ Checkpoint of " + file.getFileName() + " was blocked; size includes stale pages");
+            }
+        }
+        return file.toFile().length();
+    }
+
+    private static void report(String label, DatabaseService plain, DatabaseService compressed,
+                               int entryCount, boolean fullText) throws Exception {
+        double plainRate = readThroughput(plain, entryCount, fullText);
+        double compressedRate = readThroughput(compressed, entryCount, fullText);
+        System.out.printf("%-16s plain: %,.0f entries/s | compressed: %,.0f entries/s%n",
+                label, plainRate, compressedRate);
+    }
+
+    private static double readThroughput(DatabaseService db, int entryCount, boolean fullText) throws Exception {
+        long checksum = 0;
+        long start = System.nanoTime();
+
+        for (int round = 0; round < READ_ROUNDS; round++) {
+            List<GratitudeEntry> entries = db.getRecentEntries(entryCount);
+            for (GratitudeEntry entry : entries) {
+                checksum += fullText ? entry.getEntryText().length() : entry.getPreview(50).length();
+            }
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (checksum == 0) System.out.println("(empty read)");
+        return READ_ROUNDS * (double) entryCount / seconds;
+    }
+}
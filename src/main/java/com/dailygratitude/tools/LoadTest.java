@@ -0,0 +1,461 @@
+package com.dailygratitude.tools;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.dailygratitude.service.DatabaseService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Concurrent load and soak test for DatabaseService.
+ *
+ * Writer threads save generated entries while reader threads run a weighted mix of
+ * the queries the UI issues, all against a fresh temporary database. Each operation
+ * gets a latency histogram and separate counts of busy/locked and other errors, and
+ * heap use is sampled throughout. The JSON report can be compared with an earlier run.
+ *
+ *   --duration=10m          how long to run (s, m or h suffix)
+ *   --writers=2             threads saving entries
+ *   --readers=4             threads running the read mix
+ *   --mix=recent=4,date=2,search=1,counts=3
+ *                           relative weights of the read operations
+ *   --think-ms=0            pause between operations per thread
+ *   --seed-entries=2000     entries saved before the clock starts
+ *   --connections=shared    shared: one DatabaseService like the app; separate: one per thread
+ *   --sample-seconds=10     progress and heap sampling interval
+ *   --report=file.json      where to write the report (default loadtest-<timestamp>.json)
+ *   --compare=old.json      print the difference from an earlier report
+ *
+ * Run with sqlite-jdbc and jackson on the classpath:
+ *   java -cp target/classes:sqlite-jdbc.jar:jackson.jar com.dailygratitude.tools.LoadTest --duration=30m
+ */
+public class LoadTest {
+
+    private static final String[] READ_OPERATIONS = { "recent", "date", "search", "counts" };
+    private static final String[] SEARCH_TERMS = { "family", "coffee", "walk", "friends", "sunshine", "book", "dinner" };
+    private static final String[] TAGS = { null, "family", "work", "health", "nature", "friends" };
+
+    private final Map<String, String> options;
+    private final Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> busyErrors = new HashMap<>();
+    private final Map<String, AtomicLong> otherErrors = new HashMap<>();
+    private final Map<String, String> firstErrors = new ConcurrentHashMap<>();
+    private final List<Map<String, Object>> heapSamples = new ArrayList<>();
+    private final AtomicBoolean running = new AtomicBoolean(true);
+
+    private LoadTest(Map<String, String> options) {
+        this.options = options;
+        for (String operation : new String[] { "save", "recent", "date", "search", "counts" }) {
+            histograms.put(operation, new LatencyHistogram());
+            busyErrors.put(operation, new AtomicLong());
+            otherErrors.put(operation, new AtomicLong());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                System.err.println("Options are --name=value, see the class comment. Unrecognized: " + arg);
+                System.exit(1);
+            }
+            int split = arg.indexOf('=');
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+
+        new LoadTest(options).run();
+    }
+
+    private void run() throws Exception {
+        Duration duration = parseDuration(option("duration", "10m"));
+        int writers = Integer.parseInt(option("writers", "2"));
+        int readers = Integer.parseInt(option("readers", "4"));
+        int thinkMillis = Integer.parseInt(option("think-ms", "0"));
+        int seedEntries = Integer.parseInt(option("seed-entries", "2000"));
+        int sampleSeconds = Integer.parseInt(option("sample-seconds", "10"));
+        boolean sharedConnection = !"separate".equals(option("connections", "shared"));
+        int[] weights = parseMix(option("mix", "recent=4,date=2,search=1,counts=3"));
+
+        Path dir = Files.createTempDirectory("gratitude-loadtest");
+        String database = dir.resolve("loadtest.db").toString();
+
+        DatabaseService shared = new DatabaseService(database);
+        shared.initializeDatabase();
+        SampleEntryGenerator seeder = new SampleEntryGenerator(1);
+        for (int i = 0; i < seedEntries; i++) {
+            shared.saveGratitudeEntry(seeder.nextEntry(), 1 + i % 5, null);
+        }
+        System.out.println("🚀 Load test: " + writers + " writers, " + readers + " readers, " + duration
+                + ", " + (sharedConnection ? "shared" : "separate") + " connections, " + seedEntries + " seed entries");
+
+        List<DatabaseService> services = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int i = 0; i < writers + readers; i++) {
+            DatabaseService db = shared;
+            if (!sharedConnection) {
+                db = new DatabaseService(database);
+                db.initializeDatabase();
+                services.add(db);
+            }
+            boolean writer = i < writers;
+            DatabaseService threadDb = db;
+            long seed = 100 + i;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (writer) {
+                    writeLoop(threadDb, seed, thinkMillis);
+                } else {
+                    readLoop(threadDb, seed, weights, thinkMillis);
+                }
+            }, (writer ? "writer-" : "reader-") + i);
+            threads.add(thread);
+        }
+
+        long heapAtStart = sampleHeap(0);
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + duration.toNanos();
+        threads.forEach(Thread::start);
+        start.countDown();
+
+        while (System.nanoTime() < endNanos) {
+            Thread.sleep(Math.min(sampleSeconds * 1000L, Math.max(1, (endNanos - System.nanoTime()) / 1_000_000)));
+            long elapsed = (System.nanoTime() - startNanos) / 1_000_000_000L;
+            long heap = sampleHeap(elapsed);
+            System.out.printf("⏱  %5ds  saves %,9d  reads %,9d  busy %,6d  errors %,6d  heap %,6d MB%n", elapsed,
+                    histograms.get("save").getCount(), totalReads(), totalOf(busyErrors), totalOf(otherErrors), heap);
+        }
+
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+
+        for (DatabaseService db : services) {
+            db.closeConnection();
+        }
+        shared.closeConnection();
+
+        Map<String, Object> report = buildReport(duration, writers, readers, thinkMillis, seedEntries,
+                sharedConnection, weights, seconds, heapAtStart, database);
+        printSummary(report);
+
+        Path reportFile = Paths.get(option("report", "loadtest-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json"));
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), report);
+        System.out.println("📄 Report written to " + reportFile);
+
+        if (options.containsKey("compare")) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> previous = mapper.readValue(new File(options.get("compare")), Map.class);
+            printComparison(previous, report);
+        }
+
+        deleteQuietly(dir);
+    }
+
+    private void writeLoop(DatabaseService db, long seed, int thinkMillis) {
+        SampleEntryGenerator generator = new SampleEntryGenerator(seed);
+        Random random = generator.getRandom();
+
+        while (running.get()) {
+            String text = generator.nextEntry();
+            Integer mood = random.nextInt(6) == 0 ? null : 1 + random.nextInt(5);
+            String tags = TAGS[random.nextInt(TAGS.length)];
+            timed("save", () -> db.saveGratitudeEntry(text, mood, tags));
+            think(thinkMillis);
+        }
+    }
+
+    private void readLoop(DatabaseService db, long seed, int[] weights, int thinkMillis) {
+        Random random = new Random(seed);
+        int totalWeight = 0;
+        for (int weight : weights) totalWeight += weight;
+
+        while (running.get()) {
+            int pick = random.nextInt(totalWeight);
+            int operation = 0;
+            while (pick >= weights[operation]) {
+                pick -= weights[operation];
+                operation++;
+            }
+
+            switch (READ_OPERATIONS[operation]) {
+                case "recent":
+                    timed("recent", () -> db.getRecentEntries(10));
+                    break;
+                case "date":
+                    LocalDate date = LocalDate.now().minusDays(random.nextInt(3));
+                    timed("date", () -> db.getEntriesForDate(date));
+                    break;
+                case "search":
+                    String term = SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)];
+                    timed("search", () -> db.searchEntries(term));
+                    break;
+                default:
+                    // The pair of queries updateStats issues
+                    timed("counts", () -> db.getTotalEntryCount() + db.getTodayEntryCount());
+                    break;
+            }
+            think(thinkMillis);
+        }
+    }
+
+    private interface Operation {
+        Object run() throws Exception;
+    }
+
+    private void timed(String name, Operation operation) {
+        long start = System.nanoTime();
+        try {
+            operation.run();
+            histograms.get(name).record(System.nanoTime() - start);
+        } catch (Exception e) {
+            String message = String.valueOf(e.getMessage());
+            boolean busy = e instanceof SQLException
+                    && (message.contains("SQLITE_BUSY") || message.contains("SQLITE_LOCKED") || message.contains("locked"));
+            (busy ? busyErrors : otherErrors).get(name).incrementAndGet();
+            firstErrors.putIfAbsent(name + (busy ? " busy" : " error"), e.getClass().getSimpleName() + ": " + message);
+        }
+    }
+
+    private static void think(int millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Record heap in use now and after the last collection; returns MB in use
+     */
+    private long sampleHeap(long elapsedSeconds) {
+        long used = 0;
+        long afterGc = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP) continue;
+            used += pool.getUsage().getUsed();
+            if (pool.getCollectionUsage() != null) {
+                afterGc += pool.getCollectionUsage().getUsed();
+            }
+        }
+
+        Map<String, Object> sample = new LinkedHashMap<>();
+        sample.put("seconds", elapsedSeconds);
+        sample.put("usedMb", used >> 20);
+        sample.put("afterGcMb", afterGc >> 20);
+        heapSamples.add(sample);
+        return used >> 20;
+    }
+
+    /**
+     * Least-squares slope of the post-collection heap, in MB per hour. Steady growth here is a leak.
+     */
+    private double heapGrowthPerHour() {
+        int n = heapSamples.size();
+        if (n < 3) return 0;
+
+        double sumX = 0, sumY = 0, sumXY = 0, sumXX = 0;
+        for (Map<String, Object> sample : heapSamples) {
+            double x = ((Number) sample.get("seconds")).doubleValue() / 3600.0;
+            double y = ((Number) sample.get("afterGcMb")).doubleValue();
+            sumX += x;
+            sumY += y;
+            sumXY += x * y;
+            sumXX += x * x;
+        }
+        double denominator = n * sumXX - sumX * sumX;
+        return denominator == 0 ? 0 : (n * sumXY - sumX * sumY) / denominator;
+    }
+
+    private Map<String, Object> buildReport(Duration duration, int writers, int readers, int thinkMillis,
+                                            int seedEntries, boolean sharedConnection, int[] weights,
+                                            double seconds, long heapAtStart, String database) {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("duration", duration.toString());
+        config.put("writers", writers);
+        config.put("readers", readers);
+        config.put("thinkMs", thinkMillis);
+        config.put("seedEntries", seedEntries);
+        config.put("connections", sharedConnection ? "shared" : "separate");
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (int i = 0; i < READ_OPERATIONS.length; i++) {
+            mix.put(READ_OPERATIONS[i], weights[i]);
+        }
+        config.put("mix", mix);
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            Map<String, Object> summary = entry.getValue().summary();
+            summary.put("opsPerSecond", Math.round(entry.getValue().getCount() / seconds * 10) / 10.0);
+            summary.put("busyErrors", busyErrors.get(entry.getKey()).get());
+            summary.put("otherErrors", otherErrors.get(entry.getKey()).get());
+            operations.put(entry.getKey(), summary);
+        }
+
+        Map<String, Object> heap = new LinkedHashMap<>();
+        heap.put("startMb", heapAtStart);
+        heap.put("maxMb", heapSamples.stream().mapToLong(s -> ((Number) s.get("usedMb")).longValue()).max().orElse(0));
+        heap.put("growthMbPerHour", Math.round(heapGrowthPerHour() * 10) / 10.0);
+        heap.put("samples", heapSamples);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", LocalDateTime.now().minusSeconds((long) seconds).toString());
+        report.put("java", System.getProperty("java.version"));
+        report.put("cpus", Runtime.getRuntime().availableProcessors());
+        report.put("config", config);
+        report.put("elapsedSeconds", Math.round(seconds * 10) / 10.0);
+        report.put("operations", operations);
+        report.put("firstErrors", new LinkedHashMap<>(firstErrors));
+        report.put("heap", heap);
+        report.put("databaseBytes", new File(database).length());
+        report.put("walBytes", new File(database + "-wal").length());
+        return report;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void printSummary(Map<String, Object> report) {
+        System.out.println();
+        System.out.println("Operation      ops/s      p50      p90      p99     p999      max     busy   errors");
+        Map<String, Object> operations = (Map<String, Object>) report.get("operations");
+        for (Map.Entry<String, Object> entry : operations.entrySet()) {
+            Map<String, Object> op = (Map<String, Object>) entry.getValue();
+            System.out.printf(Locale.ROOT, "%-10s %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f %8d %8d%n", entry.getKey(),
+                    number(op, "opsPerSecond"), number(op, "p50Ms"), number(op, "p90Ms"), number(op, "p99Ms"),
+                    number(op, "p999Ms"), number(op, "maxMs"),
+                    (long) number(op, "busyErrors"), (long) number(op, "otherErrors"));
+        }
+
+        Map<String, Object> heap = (Map<String, Object>) report.get("heap");
+        System.out.println("Heap: start " + heap.get("startMb") + " MB, max " + heap.get("maxMb")
+                + " MB, growth " + heap.get("growthMbPerHour") + " MB/h");
+        Map<String, Object> errors = (Map<String, Object>) report.get("firstErrors");
+        errors.forEach((operation, message) -> System.out.println("First " + operation + ": " + message));
+    }
+
+    /**
+     * Throughput and tail latency relative to an earlier report
+     */
+    @SuppressWarnings("unchecked")
+    private static void printComparison(Map<String, Object> previous, Map<String, Object> current) {
+        System.out.println();
+        System.out.println("Compared with the earlier run:");
+        System.out.println("Operation   ops/s change   p99 change   p999 change   busy (was -> now)");
+
+        Map<String, Object> before = (Map<String, Object>) previous.get("operations");
+        Map<String, Object> after = (Map<String, Object>) current.get("operations");
+        for (Map.Entry<String, Object> entry : after.entrySet()) {
+            Map<String, Object> old = (Map<String, Object>) before.get(entry.getKey());
+            if (old == null) continue;
+            Map<String, Object> now = (Map<String, Object>) entry.getValue();
+            System.out.printf(Locale.ROOT, "%-10s %12s %12s %13s %10d -> %d%n", entry.getKey(),
+                    change(number(old, "opsPerSecond"), number(now, "opsPerSecond")),
+                    change(number(old, "p99Ms"), number(now, "p99Ms")),
+                    change(number(old, "p999Ms"), number(now, "p999Ms")),
+                    (long) number(old, "busyErrors"), (long) number(now, "busyErrors"));
+        }
+    }
+
+    private static String change(double before, double after) {
+        if (before == 0) return after == 0 ? "0%" : "new";
+        return String.format(Locale.ROOT, "%+.1f%%", (after - before) / before * 100);
+    }
+
+    private static double number(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    private long totalReads() {
+        long total = 0;
+        for (String operation : READ_OPERATIONS) {
+            total += histograms.get(operation).getCount();
+        }
+        return total;
+    }
+
+    private static long totalOf(Map<String, AtomicLong> counters) {
+        return counters.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    private String option(String name, String fallback) {
+        return options.getOrDefault(name, fallback);
+    }
+
+    /**
+     * Weights in READ_OPERATIONS order from "recent=4,date=2,..."; unnamed operations get 0
+     */
+    private static int[] parseMix(String mix) {
+        int[] weights = new int[READ_OPERATIONS.length];
+        for (String part : mix.split(",")) {
+            String[] pair = part.split("=");
+            boolean known = false;
+            for (int i = 0; i < READ_OPERATIONS.length; i++) {
+                if (READ_OPERATIONS[i].equals(pair[0].trim())) {
+                    weights[i] = Integer.parseInt(pair[1].trim());
+                    known = true;
+                }
+            }
+            if (!known) throw new IllegalArgumentException("Unknown read operation in mix: " + pair[0]);
+        }
+
+        int total = 0;
+        for (int weight : weights) total += weight;
+        if (total <= 0) throw new IllegalArgumentException("Read mix needs at least one positive weight");
+        return weights;
+    }
+
+    private static Duration parseDuration(String value) {
+        char unit = value.charAt(value.length() - 1);
+        if (Character.isDigit(unit)) {
+            return Duration.ofSeconds(Long.parseLong(value)); // plain number of seconds
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        switch (unit) {
+            case 's': return Duration.ofSeconds(amount);
+            case 'm': return Duration.ofMinutes(amount);
+            case 'h': return Duration.ofHours(amount);
+            default: throw new IllegalArgumentException("Unknown duration unit in " + value);
+        }
+    }
+
+    private static void deleteQuietly(Path dir) {
+        File[] files = dir.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.toFile().delete();
+    }
+}
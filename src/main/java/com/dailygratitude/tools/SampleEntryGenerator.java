@@ -0,0 +1,64 @@
+package com.dailygratitude.tools;
+
+import java.util.Random;
+
+/**
+ * Generates realistic-looking gratitude entries for benchmarks and load tests
+ */
+public class SampleEntryGenerator {
+
+    private static final String[] OPENINGS = {
+        "Today I am grateful for", "I am thankful for", "So grateful for",
+        "Feeling blessed because of", "Really appreciated", "Grateful for"
+    };
+
+    private static final String[] SUBJECTS = {
+        "my family", "my friends", "a good night's sleep", "the morning coffee", "a long walk in the park",
+        "my health", "the sunshine", "a quiet evening at home", "my team at work", "a phone call with mom",
+        "the rain on the window", "a delicious dinner", "my dog", "a good book", "finishing a hard project",
+        "the people who love me", "a warm bed", "laughing with my sister", "fresh bread from the bakery",
+        "a kind stranger on the bus", "music", "learning something new", "the first snow of the year"
+    };
+
+    private static final String[] CONNECTORS = {
+        " and ", ", especially ", ". I also appreciated ", ". It reminded me of ", " because of ", ", plus "
+    };
+
+    private final Random random;
+
+    public SampleEntryGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * An entry of roughly the requested length in characters
+     */
+    public String nextEntry(int approximateLength) {
+        StringBuilder sb = new StringBuilder(approximateLength + 64);
+        sb.append(OPENINGS[random.nextInt(OPENINGS.length)]).append(' ')
+          .append(SUBJECTS[random.nextInt(SUBJECTS.length)]);
+
+        while (sb.length() < approximateLength) {
+            sb.append(CONNECTORS[random.nextInt(CONNECTORS.length)])
+              .append(SUBJECTS[random.nextInt(SUBJECTS.length)]);
+            if (random.nextInt(4) == 0) {
+                sb.append(". ").append(OPENINGS[random.nextInt(OPENINGS.length)]).append(' ')
+                  .append(SUBJECTS[random.nextInt(SUBJECTS.length)]);
+            }
+        }
+
+        return sb.append('.').toString();
+    }
+
+    /**
+     * An entry whose length follows a skewed distribution: mostly short, some long journal pages
+     */
+    public String nextEntry() {
+        int length = random.nextInt(10) < 7 ? 40 + random.nextInt(300) : 1000 + random.nextInt(4000);
+        return nextEntry(length);
+    }
+
+    public Random getRandom() {
+        return random;
+    }
+}
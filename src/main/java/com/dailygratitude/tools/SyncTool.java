@@ -0,0 +1,95 @@
+package com.dailygratitude.tools;
+
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.Map;
+
+import com.dailygratitude.model.SyncBundle;
+import com.dailygratitude.service.DatabaseService;
+import com.dailygratitude.service.SyncService;
+
+/**
+ * Command line delta sync between two journal databases.
+ *
+ *   status     [database]                      device id and known change versions
+ *   export     bundle [peerDeviceId] [database] write changes the peer hasn't seen (all if no peer)
+ *   apply      bundle [database]               apply a bundle exported on another device
+ *   new-device [database]                      give a copied database file its own device id
+ *
+ * Typical round trip: on the laptop "export to-desktop.sync <desktop id>", on the desktop
+ * "apply to-desktop.sync" then "export to-laptop.sync <laptop id>", and apply that on the laptop.
+ *
+ * The app must be closed while syncing (like BackupTool restore): a running app keeps its counts,
+ * streaks, entry lists and device id in memory and would not see what apply or new-device changes.
+ *
+ * Run with sqlite-jdbc and jackson on the classpath:
+ *   java -cp target/classes:sqlite-jdbc.jar:jackson.jar com.dailygratitude.tools.SyncTool status
+ */
+public class SyncTool {
+
+    private static final String DEFAULT_DATABASE = "dailygratitude.db";
+
+    public static void main(String[] args) throws Exception {
+        String command = args.length > 0 ? args[0] : "status";
+
+        switch (command) {
+            case "status": {
+                DatabaseService db = open(arg(args, 1, DEFAULT_DATABASE));
+                System.out.println("Device: " + db.getDeviceId());
+                for (Map.Entry<String, Long> version : db.getSyncVersions().entrySet()) {
+                    System.out.printf("  %-38s seq %,d%n", version.getKey(), version.getValue());
+                }
+                db.closeConnection();
+                break;
+            }
+            case "export": {
+                if (args.length < 2) usage();
+                String peer = arg(args, 2, null);
+                DatabaseService db = open(arg(args, 3, DEFAULT_DATABASE));
+                new SyncService(db).exportBundle(Paths.get(args[1]), peer);
+                db.closeConnection();
+                break;
+            }
+            case "apply": {
+                if (args.length < 2) usage();
+                DatabaseService db = open(arg(args, 2, DEFAULT_DATABASE));
+                SyncService sync = new SyncService(db);
+                SyncBundle bundle = sync.readBundle(Paths.get(args[1]));
+                try {
+                    db.applyChanges(bundle);
+                } catch (SQLException e) {
+                    System.err.println("❌ " + e.getMessage());
+                    db.closeConnection();
+                    System.exit(1);
+                }
+                System.out.println("Reply with: export <bundle> " + bundle.getDeviceId());
+                db.closeConnection();
+                break;
+            }
+            case "new-device": {
+                DatabaseService db = open(arg(args, 1, DEFAULT_DATABASE));
+                System.out.println("New device id: " + db.assignNewDeviceId());
+                db.closeConnection();
+                break;
+            }
+            default:
+                usage();
+        }
+    }
+
+    private static DatabaseService open(String database) {
+        DatabaseService db = new DatabaseService(database);
+        db.initializeDatabase();
+        return db;
+    }
+
+    private static void usage() {
+        System.err.println("Usage: status | export <bundle> [peerDeviceId] | apply <bundle> | new-device  [database]");
+        System.err.println("Close the app before syncing.");
+        System.exit(1);
+    }
+
+    private static String arg(String[] args, int index, String fallback) {
+        return args.length > index ? args[index] : fallback;
+    }
+}
@@ -0,0 +1,108 @@
+package com.dailygratitude.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class AutocompleteIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private final AutocompleteIndex index = new AutocompleteIndex();
+
+    @Test
+    void ranksCompletionsByUseCount() {
+        index.add("coffee", 5, TODAY);
+        index.add("cookies", 2, TODAY);
+        index.add("cold mornings", 3, TODAY);
+        index.add("family", 9, TODAY);
+
+        assertEquals(List.of("coffee", "cold mornings", "cookies"), index.suggest("co", 8));
+        assertEquals(List.of("coffee"), index.suggest("co", 1));
+        assertEquals(List.of("cold mornings"), index.suggest("col", 8));
+        assertTrue(index.suggest("x", 8).isEmpty());
+    }
+
+    @Test
+    void recentUsesOutweighOlderOnes() {
+        // Two half-lives ago a use counts a quarter as much
+        index.add("garden", 2, TODAY.minusDays(360));
+        index.add("gardening", 1, TODAY);
+        index.add("gardens", 3, TODAY.minusDays(360));
+        index.add("gardenia", 5, TODAY.minusDays(360));
+
+        assertEquals(List.of("gardenia", "gardening", "gardens"), index.suggest("garden", 8));
+        assertEquals(List.of("gardenia", "gardening", "gardens", "garden"), index.suggest("g", 8));
+    }
+
+    @Test
+    void prefixItselfIsNotSuggested() {
+        index.add("tea", 10, TODAY);
+        index.add("team", 1, TODAY);
+
+        assertEquals(List.of("team"), index.suggest("tea", 8));
+    }
+
+    @Test
+    void suggestionsAreCappedAtTheBestFew() {
+        for (int i = 0; i < 20; i++) {
+            index.add("walk " + (char) ('a' + i), i + 1, TODAY);
+        }
+
+        List<String> suggestions = index.suggest("walk", 100);
+        assertEquals(AutocompleteIndex.MAX_SUGGESTIONS, suggestions.size());
+        assertEquals("walk t", suggestions.get(0));
+        assertEquals("walk m", suggestions.get(AutocompleteIndex.MAX_SUGGESTIONS - 1));
+    }
+
+    @Test
+    void removingUsesReordersAndDropsTerms() {
+        index.add("coffee", 5, TODAY);
+        index.add("cold", 3, TODAY);
+        index.add("coffee", -3, TODAY);
+
+        assertEquals(List.of("cold", "coffee"), index.suggest("c", 8));
+
+        index.add("coffee", -2, TODAY);
+        assertEquals(List.of("cold"), index.suggest("c", 8));
+        assertTrue(index.suggest("cof", 8).isEmpty());
+
+        // Taking back a term that was never added changes nothing
+        index.add("cocoa", -1, TODAY);
+        assertEquals(List.of("cold"), index.suggest("c", 8));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void removingACachedTermLetsTheNextBestIn() {
+        for (int i = 0; i <= AutocompleteIndex.MAX_SUGGESTIONS; i++) {
+            index.add("sun" + i, 10 - i, TODAY);
+        }
+        String outside = "sun" + AutocompleteIndex.MAX_SUGGESTIONS;
+        assertFalse(index.suggest("sun", 100).contains(outside));
+
+        index.add("sun0", -10, TODAY);
+
+        List<String> suggestions = index.suggest("sun", 100);
+        assertEquals(AutocompleteIndex.MAX_SUGGESTIONS, suggestions.size());
+        assertEquals("sun1", suggestions.get(0));
+        assertEquals(outside, suggestions.get(suggestions.size() - 1));
+    }
+
+    @Test
+    void clearForgetsEverything() {
+        index.add("rain", 1, TODAY);
+        index.clear();
+
+        assertEquals(0, index.size());
+        assertTrue(index.suggest("r", 8).isEmpty());
+
+        index.add("river", 1, TODAY);
+        assertEquals(List.of("river"), index.suggest("r", 8));
+    }
+}
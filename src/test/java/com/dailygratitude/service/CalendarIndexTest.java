@@ -0,0 +1,124 @@
+package com.dailygratitude.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.dailygratitude.model.DayStats;
+
+class CalendarIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 15);
+
+    private final CalendarIndex index = new CalendarIndex();
+
+    @Test
+    void emptyIndexHasNoStreaks() {
+        assertEquals(0, index.getCurrentStreak(TODAY));
+        assertEquals(0, index.getLongestStreak());
+        assertEquals(0, index.getActiveDayCount());
+    }
+
+    @Test
+    void insertingAdjacentDaysJoinsRuns() {
+        // Two runs, [-5, -4] and [-2, 0], joined by filling in -3
+        index.recordEntry(TODAY.minusDays(5), 3);
+        index.recordEntry(TODAY.minusDays(4), null);
+        index.recordEntry(TODAY, 4);
+        index.recordEntry(TODAY.minusDays(2), 5);
+        index.recordEntry(TODAY.minusDays(1), null);
+
+        assertEquals(3, index.getCurrentStreak(TODAY));
+        assertEquals(3, index.getLongestStreak());
+
+        index.recordEntry(TODAY.minusDays(3), 2);
+
+        assertEquals(6, index.getCurrentStreak(TODAY));
+        assertEquals(6, index.getLongestStreak());
+        assertEquals(6, index.getActiveDayCount());
+    }
+
+    @Test
+    void currentStreakMayEndYesterday() {
+        index.recordEntry(TODAY.minusDays(2), null);
+        index.recordEntry(TODAY.minusDays(1), null);
+
+        assertEquals(2, index.getCurrentStreak(TODAY));
+        assertEquals(0, index.getCurrentStreak(TODAY.plusDays(1)));
+    }
+
+    @Test
+    void deletingAMiddleDaySplitsTheRun() {
+        for (int i = 0; i < 7; i++) {
+            index.recordEntry(TODAY.minusDays(i), null);
+        }
+        index.recordEntry(TODAY.minusDays(3), null);
+
+        // A second entry on the day keeps the run whole
+        index.removeEntry(TODAY.minusDays(3), null);
+        assertEquals(7, index.getLongestStreak());
+
+        index.removeEntry(TODAY.minusDays(3), null);
+        assertEquals(3, index.getCurrentStreak(TODAY));
+        assertEquals(3, index.getLongestStreak());
+        assertEquals(6, index.getActiveDayCount());
+
+        // Removing today leaves the streak ending yesterday
+        index.removeEntry(TODAY, null);
+        assertEquals(2, index.getCurrentStreak(TODAY));
+        assertEquals(3, index.getLongestStreak());
+    }
+
+    @Test
+    void deletingTheLongestRunRecomputesTheLongestStreak() {
+        for (int i = 10; i < 15; i++) {
+            index.recordEntry(TODAY.minusDays(i), null);
+        }
+        index.recordEntry(TODAY.minusDays(1), null);
+        index.recordEntry(TODAY, null);
+
+        assertEquals(5, index.getLongestStreak());
+
+        index.removeEntry(TODAY.minusDays(14), null);
+        index.removeEntry(TODAY.minusDays(10), null);
+        assertEquals(3, index.getLongestStreak());
+
+        index.removeEntry(TODAY.minusDays(12), null);
+        assertEquals(2, index.getLongestStreak());
+        assertEquals(2, index.getCurrentStreak(TODAY));
+    }
+
+    @Test
+    void dayStatsAverageOnlyRatedEntries() {
+        index.recordEntry(TODAY, 2);
+        index.recordEntry(TODAY, 5);
+        index.recordEntry(TODAY, null);
+        index.removeEntry(TODAY, 5);
+
+        DayStats stats = index.getDayStats(TODAY);
+        assertEquals(2, stats.getEntryCount());
+        assertEquals(2.0, stats.getAverageMood());
+
+        List<DayStats> heatmap = index.getHeatmap(TODAY.minusDays(2), TODAY);
+        assertEquals(3, heatmap.size());
+        assertFalse(heatmap.get(0).hasEntries());
+        assertNull(heatmap.get(1).getAverageMood());
+        assertEquals(TODAY, heatmap.get(2).getDate());
+    }
+
+    @Test
+    void clearDropsEverything() {
+        index.addDay(TODAY, 3, 12, 3);
+        index.addDay(TODAY.minusDays(1), 1, 0, 0);
+        index.clear();
+
+        assertEquals(0, index.getCurrentStreak(TODAY));
+        assertEquals(0, index.getLongestStreak());
+        assertFalse(index.getDayStats(TODAY).hasEntries());
+    }
+}
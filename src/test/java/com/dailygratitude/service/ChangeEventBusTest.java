@@ -0,0 +1,159 @@
+package com.dailygratitude.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.dailygratitude.model.ChangeEvent;
+import com.dailygratitude.model.ChangeEvent.Type;
+import com.dailygratitude.model.GratitudeEntry;
+import com.dailygratitude.model.Quote;
+
+class ChangeEventBusTest {
+
+    private static GratitudeEntry entry(long id, String text) {
+        GratitudeEntry entry = new GratitudeEntry(text, null);
+        entry.setId(id);
+        return entry;
+    }
+
+    private static List<String> describe(List<ChangeEvent> events) {
+        List<String> result = new ArrayList<>();
+        for (ChangeEvent event : events) {
+            result.add(event.isEntryEvent()
+                    ? event.getType() + " " + event.getEntry().getId() + " " + event.getEntry().getEntryText()
+                    : event.getType() + " " + event.getQuote().getText());
+        }
+        return result;
+    }
+
+    @Test
+    void insertFollowedByUpdatesIsOneInsertOfTheLatestText() {
+        List<ChangeEvent> coalesced = ChangeEventBus.coalesce(List.of(
+                ChangeEvent.entryInserted(entry(1, "first")),
+                ChangeEvent.entryUpdated(entry(1, "first"), entry(1, "second")),
+                ChangeEvent.entryUpdated(entry(1, "second"), entry(1, "third"))));
+
+        assertEquals(List.of("ENTRY_INSERTED 1 third"), describe(coalesced));
+    }
+
+    @Test
+    void insertFollowedByDeleteCancelsOut() {
+        List<ChangeEvent> coalesced = ChangeEventBus.coalesce(List.of(
+                ChangeEvent.entryInserted(entry(1, "gone")),
+                ChangeEvent.entryInserted(entry(2, "kept")),
+                ChangeEvent.entryUpdated(entry(1, "gone"), entry(1, "gone again")),
+                ChangeEvent.entryDeleted(entry(1, "gone again"))));
+
+        assertEquals(List.of("ENTRY_INSERTED 2 kept"), describe(coalesced));
+    }
+
+    @Test
+    void repeatedUpdatesKeepTheFirstPreviousVersion() {
+        List<ChangeEvent> coalesced = ChangeEventBus.coalesce(List.of(
+                ChangeEvent.entryUpdated(entry(1, "original"), entry(1, "edited")),
+                ChangeEvent.entryUpdated(entry(1, "edited"), entry(1, "edited twice"))));
+
+        assertEquals(List.of("ENTRY_UPDATED 1 edited twice"), describe(coalesced));
+        assertEquals("original", coalesced.get(0).getPreviousEntry().getEntryText());
+    }
+
+    @Test
+    void updateFollowedByDeleteDeletesTheVersionSubscribersLastSaw() {
+        List<ChangeEvent> coalesced = ChangeEventBus.coalesce(List.of(
+                ChangeEvent.entryUpdated(entry(1, "original"), entry(1, "edited")),
+                ChangeEvent.entryUpdated(entry(1, "edited"), entry(1, "edited twice")),
+                ChangeEvent.entryDeleted(entry(1, "edited twice"))));
+
+        assertEquals(List.of("ENTRY_DELETED 1 original"), describe(coalesced));
+    }
+
+    @Test
+    void deletedIdComingBackStaysTwoEvents() {
+        List<ChangeEvent> coalesced = ChangeEventBus.coalesce(List.of(
+                ChangeEvent.entryDeleted(entry(1, "old")),
+                ChangeEvent.entryInserted(entry(1, "new")),
+                ChangeEvent.entryUpdated(entry(1, "new"), entry(1, "newer"))));
+
+        assertEquals(List.of("ENTRY_DELETED 1 old", "ENTRY_INSERTED 1 newer"), describe(coalesced));
+    }
+
+    @Test
+    void repeatedQuoteShowingsCollapseInFirstAppearanceOrder() {
+        List<ChangeEvent> coalesced = ChangeEventBus.coalesce(List.of(
+                ChangeEvent.quoteShown(new Quote("Be kind", "A")),
+                ChangeEvent.entryInserted(entry(1, "entry")),
+                ChangeEvent.quoteShown(new Quote("Be kind", "A")),
+                ChangeEvent.quoteShown(new Quote("Be kind", "B"))));
+
+        assertEquals(List.of("QUOTE_SHOWN Be kind", "ENTRY_INSERTED 1 entry", "QUOTE_SHOWN Be kind"),
+                describe(coalesced));
+        assertEquals("B", coalesced.get(2).getQuote().getAuthor());
+    }
+
+    @Test
+    void burstIsDeliveredAsOneCoalescedBatch() throws InterruptedException {
+        ChangeEventBus bus = new ChangeEventBus();
+        BlockingQueue<List<ChangeEvent>> batches = new LinkedBlockingQueue<>();
+        try {
+            bus.subscribe(batches::add);
+            bus.publish(ChangeEvent.entryInserted(entry(1, "a")));
+            bus.publish(ChangeEvent.entryUpdated(entry(1, "a"), entry(1, "b")));
+            bus.publish(ChangeEvent.entryInserted(entry(2, "c")));
+
+            List<ChangeEvent> batch = batches.poll(5, TimeUnit.SECONDS);
+            assertNotNull(batch);
+            assertEquals(List.of("ENTRY_INSERTED 1 b", "ENTRY_INSERTED 2 c"), describe(batch));
+            assertTrue(batches.isEmpty());
+        } finally {
+            bus.close();
+        }
+    }
+
+    @Test
+    void publishingWithoutSubscribersIsANoOp() throws InterruptedException {
+        ChangeEventBus bus = new ChangeEventBus();
+        BlockingQueue<List<ChangeEvent>> batches = new LinkedBlockingQueue<>();
+        try {
+            bus.publish(ChangeEvent.entryInserted(entry(1, "unseen")));
+            bus.subscribe(batches::add);
+            bus.publish(ChangeEvent.entryInserted(entry(2, "seen")));
+
+            List<ChangeEvent> batch = batches.poll(5, TimeUnit.SECONDS);
+            assertNotNull(batch);
+            assertEquals(List.of("ENTRY_INSERTED 2 seen"), describe(batch));
+            assertEquals(Type.ENTRY_INSERTED, batch.get(0).getType());
+        } finally {
+            bus.close();
+        }
+    }
+
+    @Test
+    void subscriberOnlyReceivesEventsPublishedAfterSubscribing() throws InterruptedException {
+        ChangeEventBus bus = new ChangeEventBus();
+        BlockingQueue<ChangeEvent> early = new LinkedBlockingQueue<>();
+        BlockingQueue<ChangeEvent> late = new LinkedBlockingQueue<>();
+        try {
+            bus.subscribe(early::addAll);
+            bus.publish(ChangeEvent.entryInserted(entry(1, "before")));
+            bus.subscribe(late::addAll);
+            bus.publish(ChangeEvent.entryInserted(entry(2, "after")));
+
+            assertEquals("ENTRY_INSERTED 1 before", describe(List.of(early.poll(5, TimeUnit.SECONDS))).get(0));
+            assertEquals("ENTRY_INSERTED 2 after", describe(List.of(early.poll(5, TimeUnit.SECONDS))).get(0));
+            assertEquals("ENTRY_INSERTED 2 after", describe(List.of(late.poll(5, TimeUnit.SECONDS))).get(0));
+            assertNull(late.poll(100, TimeUnit.MILLISECONDS));
+        } finally {
+            bus.close();
+        }
+    }
+}
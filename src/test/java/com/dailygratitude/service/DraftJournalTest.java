@@ -0,0 +1,133 @@
+package com.dailygratitude.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DraftJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<DraftJournal> journals = new ArrayList<>();
+
+    @AfterEach
+    void closeJournals() {
+        journals.forEach(DraftJournal::close);
+    }
+
+    /**
+     * A second journal over the same files, as after a crash: the first one is never closed
+     */
+    private DraftJournal reopen() {
+        DraftJournal journal = new DraftJournal(directory, "draft");
+        journals.add(journal);
+        return journal;
+    }
+
+    private String replayAfter(String... edits) throws IOException {
+        DraftJournal journal = reopen();
+        journal.open(0);
+        for (String text : edits) {
+            journal.update(text);
+            journal.flush();
+        }
+        return reopen().open(0);
+    }
+
+    @Test
+    void replaysEdits() throws IOException {
+        assertEquals("Grateful for the sea",
+                replayAfter("Grateful", "Grateful for rain", "Grateful for the rain", "Grateful for the sea"));
+    }
+
+    @Test
+    void replaysEditsInsideSurrogatePairs() throws IOException {
+        // Same high surrogate, different low surrogate
+        assertEquals("Grateful 😃", replayAfter("Grateful 😀", "Grateful 😃"));
+        // Different high surrogate, same low surrogate (U+1F600 and U+1F200)
+        assertEquals("a🈀b", replayAfter("a😀b", "a🈀b"));
+        // Replacing and removing emoji around unchanged ones
+        assertEquals("🌞 sun, 🌧 rain", replayAfter("🌞 sun, 🌊 sea", "🌞 sun, 🌧 sea", "🌞 sun, 🌧 rain"));
+        assertEquals("😀😀", replayAfter("😀😃😀", "😀😀"));
+    }
+
+    @Test
+    void compactionKeepsNonBmpText() throws IOException {
+        DraftJournal journal = reopen();
+        journal.open(0);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            text.append(i % 2 == 0 ? "🙏" : "家").append(i);
+            journal.update(text.toString());
+            journal.flush();
+        }
+
+        assertEquals(text.toString(), reopen().open(0));
+    }
+
+    @Test
+    void clearedDraftIsNotRestored() throws IOException {
+        DraftJournal journal = reopen();
+        journal.open(0);
+        long firstDraftId = journal.getDraftId();
+        journal.update("Saved already");
+        journal.flush();
+        journal.clear();
+
+        DraftJournal replayed = reopen();
+        assertEquals("", replayed.open(0));
+        assertNotEquals(0, replayed.getDraftId());
+        assertNotEquals(firstDraftId, replayed.getDraftId());
+    }
+
+    @Test
+    void draftSavedBeforeACrashIsDiscarded() throws IOException {
+        DraftJournal journal = reopen();
+        journal.open(0);
+        long savedDraftId = journal.getDraftId();
+        journal.update("Committed, but the clear record was never written");
+        journal.flush();
+
+        DraftJournal replayed = reopen();
+        assertEquals("", replayed.open(savedDraftId));
+        assertNotEquals(savedDraftId, replayed.getDraftId());
+    }
+
+    @Test
+    void emptyDraftWithTheSavedIdGetsANewId() throws IOException {
+        DraftJournal journal = reopen();
+        journal.open(0);
+        long savedDraftId = journal.getDraftId();
+
+        DraftJournal replayed = reopen();
+        assertEquals("", replayed.open(savedDraftId));
+        assertNotEquals(savedDraftId, replayed.getDraftId());
+
+        // Text typed into the next draft survives another crash
+        replayed.update("A new draft");
+        replayed.flush();
+        assertEquals("A new draft", reopen().open(savedDraftId));
+    }
+
+    @Test
+    void unsavedDraftIsRestoredWithItsId() throws IOException {
+        DraftJournal journal = reopen();
+        journal.open(0);
+        long draftId = journal.getDraftId();
+        journal.update("Not saved yet");
+        journal.flush();
+
+        DraftJournal replayed = reopen();
+        assertEquals("Not saved yet", replayed.open(draftId + 1));
+        assertEquals(draftId, replayed.getDraftId());
+    }
+}
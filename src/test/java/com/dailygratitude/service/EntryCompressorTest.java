@@ -0,0 +1,88 @@
+package com.dailygratitude.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class EntryCompressorTest {
+
+    private static final String ENTRY =
+        "Today I am grateful for a warm cup of coffee this morning, my friends and family, " +
+        "and a long walk in the park with my dog. I am thankful for my health and my home.";
+
+    private final EntryCompressor compressor = new EntryCompressor();
+
+    @Test
+    void roundTripsWithTheBuiltInDictionary() {
+        byte[] compressed = compressor.compress(ENTRY);
+
+        assertEquals(EntryCompressor.BUILT_IN_DICTIONARY_ID, compressor.getCurrentDictionaryId());
+        assertTrue(compressed.length < ENTRY.getBytes(StandardCharsets.UTF_8).length);
+        assertEquals(ENTRY, compressor.decompress(compressed, EntryCompressor.BUILT_IN_DICTIONARY_ID));
+    }
+
+    @Test
+    void roundTripsNonAsciiAndEmptyText() {
+        String text = "Grateful for café mornings 😀, 家族 and the first snow ❄️";
+
+        assertEquals(text, compressor.decompress(compressor.compress(text), EntryCompressor.BUILT_IN_DICTIONARY_ID));
+        assertEquals("", compressor.decompress(compressor.compress(""), EntryCompressor.BUILT_IN_DICTIONARY_ID));
+    }
+
+    @Test
+    void roundTripsTextLongerThanTheDeflateWindow() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; text.length() < 100_000; i++) {
+            text.append(i).append(": ").append(ENTRY).append('\n');
+        }
+
+        byte[] compressed = compressor.compress(text.toString());
+        assertEquals(text.toString(), compressor.decompress(compressed, EntryCompressor.BUILT_IN_DICTIONARY_ID));
+    }
+
+    @Test
+    void trainedDictionaryBecomesCurrentAndOlderOnesStillDecompress() {
+        byte[] builtIn = compressor.compress(ENTRY);
+
+        List<String> samples = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            samples.add("Grateful for sunshine in the garden and dinner with my sister, day " + i);
+        }
+        compressor.addDictionary(7, EntryCompressor.trainDictionary(samples));
+
+        String text = "Grateful for sunshine in the garden and dinner with my sister again";
+        byte[] trained = compressor.compress(text);
+
+        assertEquals(7, compressor.getCurrentDictionaryId());
+        assertEquals(text, compressor.decompress(trained, 7));
+        assertEquals(ENTRY, compressor.decompress(builtIn, EntryCompressor.BUILT_IN_DICTIONARY_ID));
+
+        // An older dictionary id registered later does not replace the current one
+        compressor.addDictionary(3, EntryCompressor.trainDictionary(samples));
+        assertEquals(7, compressor.getCurrentDictionaryId());
+    }
+
+    @Test
+    void trainedDictionaryStaysUnderTheSizeLimit() {
+        List<String> samples = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            samples.add("word" + i + " word" + i + " other" + (i * 7) + " other" + (i * 7));
+        }
+
+        assertTrue(EntryCompressor.trainDictionary(samples).length <= 16 * 1024);
+    }
+
+    @Test
+    void unknownDictionaryIsRejected() {
+        byte[] compressed = compressor.compress(ENTRY);
+
+        assertThrows(IllegalStateException.class, () -> compressor.decompress(compressed, 42));
+        assertThrows(IllegalStateException.class, () -> compressor.compress(ENTRY, 42));
+    }
+}
@@ -0,0 +1,187 @@
+package com.dailygratitude.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.dailygratitude.model.GratitudeEntry;
+
+class SyncServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private DatabaseService laptop;
+    private DatabaseService desktop;
+    private int bundles;
+
+    @BeforeEach
+    void openDatabases() {
+        laptop = open("laptop.db");
+        desktop = open("desktop.db");
+    }
+
+    @AfterEach
+    void closeDatabases() {
+        laptop.closeConnection();
+        desktop.closeConnection();
+    }
+
+    private DatabaseService open(String name) {
+        DatabaseService db = new DatabaseService(directory.resolve(name).toString());
+        db.initializeDatabase();
+        return db;
+    }
+
+    /**
+     * Export what the receiver hasn't seen through a bundle file and apply it there
+     */
+    private int send(DatabaseService from, DatabaseService to) throws SQLException, IOException {
+        Path bundle = directory.resolve("bundle-" + (bundles++) + ".sync");
+        new SyncService(from).exportBundle(bundle, to.getDeviceId());
+        return new SyncService(to).applyBundle(bundle);
+    }
+
+    private void syncBothWays() throws SQLException, IOException {
+        send(laptop, desktop);
+        send(desktop, laptop);
+        send(laptop, desktop);
+    }
+
+    /**
+     * Entry text by uuid, the identity both copies share
+     */
+    private static Map<String, String> entries(DatabaseService db) throws SQLException {
+        Map<String, String> result = new TreeMap<>();
+        for (GratitudeEntry entry : db.getRecentEntries(100)) {
+            result.put(entry.getUuid(), entry.getEntryText());
+        }
+        return result;
+    }
+
+    private static long idOf(DatabaseService db, String uuid) throws SQLException {
+        for (GratitudeEntry entry : db.getRecentEntries(100)) {
+            if (entry.getUuid().equals(uuid)) return entry.getId();
+        }
+        throw new AssertionError("No entry " + uuid);
+    }
+
+    private static void waitForClockTick() throws InterruptedException {
+        // changed_at has millisecond resolution
+        Thread.sleep(5);
+    }
+
+    @Test
+    void entriesWrittenOnEitherSideReachTheOther() throws Exception {
+        laptop.saveGratitudeEntry("Morning coffee on the balcony");
+        desktop.saveGratitudeEntry("A long call with my brother");
+        desktop.saveGratitudeEntry("Finished the puzzle");
+
+        syncBothWays();
+
+        assertEquals(3, entries(laptop).size());
+        assertEquals(entries(laptop), entries(desktop));
+        assertEquals(3, laptop.getCalendarIndex().getTotalEntryCount());
+        assertEquals(3, desktop.getCalendarIndex().getTotalEntryCount());
+
+        // Nothing new on either side: the next bundles change nothing
+        assertEquals(0, send(laptop, desktop));
+        assertEquals(0, send(desktop, laptop));
+    }
+
+    @Test
+    void concurrentEditsConvergeOnTheLaterOne() throws Exception {
+        long laptopId = laptop.saveGratitudeEntry("Dinner with friends");
+        send(laptop, desktop);
+        String uuid = entries(laptop).keySet().iterator().next();
+
+        laptop.updateEntry(laptopId, "Dinner with old friends", 4, null);
+        waitForClockTick();
+        desktop.updateEntry(idOf(desktop, uuid), "Dinner with friends from school", 5, "friends");
+
+        syncBothWays();
+
+        assertEquals(Map.of(uuid, "Dinner with friends from school"), entries(laptop));
+        assertEquals(entries(laptop), entries(desktop));
+        assertEquals(5.0, laptop.getCalendarIndex().getDayStats(LocalDate.now()).getAverageMood());
+    }
+
+    @Test
+    void deleteAfterAnEditOnTheOtherSideWins() throws Exception {
+        long laptopId = laptop.saveGratitudeEntry("Rain on the window");
+        laptop.saveGratitudeEntry("Fresh bread");
+        send(laptop, desktop);
+        String uuid = entries(laptop).entrySet().stream()
+                .filter(entry -> entry.getValue().equals("Rain on the window"))
+                .findFirst().orElseThrow().getKey();
+
+        desktop.updateEntry(idOf(desktop, uuid), "Rain on the window all evening", null, null);
+        waitForClockTick();
+        laptop.deleteEntry(laptopId);
+
+        syncBothWays();
+
+        assertEquals(List.of("Fresh bread"), new ArrayList<>(entries(desktop).values()));
+        assertEquals(entries(laptop), entries(desktop));
+        assertEquals(1, desktop.getCalendarIndex().getTotalEntryCount());
+    }
+
+    @Test
+    void editAfterADeleteOnTheOtherSideBringsTheEntryBack() throws Exception {
+        long laptopId = laptop.saveGratitudeEntry("Quiet Sunday");
+        send(laptop, desktop);
+        String uuid = entries(laptop).keySet().iterator().next();
+
+        laptop.deleteEntry(laptopId);
+        waitForClockTick();
+        desktop.updateEntry(idOf(desktop, uuid), "Quiet Sunday with a book", null, null);
+
+        syncBothWays();
+
+        assertEquals(Map.of(uuid, "Quiet Sunday with a book"), entries(laptop));
+        assertEquals(entries(laptop), entries(desktop));
+    }
+
+    @Test
+    void deletesOnBothSidesConverge() throws Exception {
+        long laptopId = laptop.saveGratitudeEntry("Sunset walk");
+        send(laptop, desktop);
+        String uuid = entries(laptop).keySet().iterator().next();
+
+        laptop.deleteEntry(laptopId);
+        desktop.deleteEntry(idOf(desktop, uuid));
+
+        syncBothWays();
+
+        assertTrue(entries(laptop).isEmpty());
+        assertTrue(entries(desktop).isEmpty());
+    }
+
+    @Test
+    void bundleFromACopyOfThisDatabaseIsRejected() throws Exception {
+        laptop.saveGratitudeEntry("Written before the copy");
+        Path bundle = directory.resolve("self.sync");
+        new SyncService(laptop).exportBundle(bundle, null);
+
+        assertThrows(SQLException.class, () -> new SyncService(laptop).applyBundle(bundle));
+
+        String oldDeviceId = laptop.getDeviceId();
+        assertNotEquals(oldDeviceId, laptop.assignNewDeviceId());
+        assertEquals(0, new SyncService(laptop).applyBundle(bundle));
+    }
+}